@@ -2,6 +2,7 @@ import java.util.ArrayList;
 import macroutils.MacroUtils;
 import macroutils.StaticDeclarations;
 import macroutils.UserDeclarations;
+import macroutils.templates.simtools.WarmStart;
 import star.base.neo.DoubleVector;
 import star.base.report.Monitor;
 import star.common.Dimensions;
@@ -302,6 +303,9 @@ public class Demo15_Run_DES extends StarMacro {
         mu.get.solver.stoppingCriteria(".*Pressure.*", true).setIsUsed(false);
         mu.clear.solutionHistory();
         //--
+        //-- Keep the RANS solution for starting the DES run on the fine mesh.
+        WarmStart ws = new WarmStart(mu);
+        ws.save();
         mu.set.mesh.baseSize(ud.mshOp, bsDES, ud.unit_mm, true);
         mu.update.volumeMesh();
         ud.trnTimestep = dtDES;
@@ -315,6 +319,7 @@ public class Demo15_Run_DES extends StarMacro {
         mu.set.physics.materialProperty(ud.physCont, "Air", StaticDeclarations.Vars.VISC,
                 mu_g, ud.unit_Pa_s);
         ud.region.setPhysicsContinuum(ud.physCont);
+        ws.apply(ud.physCont);
         mu.set.solver.ultraAggressiveSettings();
         mu.set.solver.linearSolverConvergenceTolerance(1E-4, true);
         //-- Activate Synthetic Eddy Generation at Inlet if desired (at a higher CPU cost).
@@ -1,7 +1,10 @@
 package macroutils;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.function.BooleanSupplier;
 import macroutils.checker.MainChecker;
 import macroutils.creator.MainCreator;
 import macroutils.getter.MainGetter;
@@ -110,6 +113,7 @@ public final class MacroUtils {
     private boolean _debug = false;
     private boolean _im = false;
     private boolean _initialized = false;
+    private final HashMap<Simulation, Session> _sessions = new HashMap<>();
     private Simulation _sim = null;
 
     /**
@@ -163,6 +167,46 @@ public final class MacroUtils {
         return _sim;
     }
 
+    /**
+     * Gets all Simulations with a cached session in MacroUtils, including the current one. See
+     * {@link #setSimulation}. Sessions of Simulations killed elsewhere are released.
+     *
+     * @return An ArrayList of Simulations.
+     */
+    public ArrayList<Simulation> getSimulations() {
+        _sessions.keySet().removeIf(s -> !_isAlive(s));
+        ArrayList<Simulation> as = new ArrayList<>(_sessions.keySet());
+        as.add(0, _sim);
+        return as;
+    }
+
+    /**
+     * Kills a Simulation other than the current one and releases its cached session.
+     *
+     * @param s given Simulation.
+     */
+    public void killSimulation(Simulation s) {
+        if (releaseSimulation(s)) {
+            s.kill();
+        }
+    }
+
+    /**
+     * Releases the cached session of a Simulation other than the current one. Use it when the
+     * Simulation is going to be killed elsewhere. See {@link #killSimulation}.
+     *
+     * @param s given Simulation.
+     * @return True if released. False if it is the current Simulation.
+     */
+    public boolean releaseSimulation(Simulation s) {
+        if (s == _sim) {
+            io.say.msg("Current Simulation can not be released.");
+            return false;
+        }
+        _sessions.remove(s);
+        return true;
+    }
+
     /**
      * Runs the simulation.
      */
@@ -218,6 +262,11 @@ public final class MacroUtils {
     /**
      * Sets a Simulation object for the MacroUtils instance.
      *
+     * The fully wired MacroUtils objects of every Simulation set are kept in a session cache, so
+     * switching back to a Simulation used before does not initialize it again. Release it with
+     * {@link #releaseSimulation} or {@link #killSimulation}. The {@link #io} object is shared by
+     * all sessions and rebound to the current Simulation on every switch.
+     *
      * @param s             given Simulation.
      * @param intrusiveMode given intrusive mode option. This will change your simulation file with
      *                      recommended MacroUtils settings.
@@ -226,9 +275,44 @@ public final class MacroUtils {
         if (s == null || s == _sim) {
             return;
         }
+        if (_sim != null) {
+            _sessions.put(_sim, new Session());
+        }
         _sim = s;
         setIntrusiveOption(intrusiveMode);
-        _initialize();
+        Session ss = _sessions.remove(s);
+        if (ss == null) {
+            _initialize();
+            return;
+        }
+        ss.restore();
+        io.updateInstances();
+        io.say.value("Switched to Simulation", _sim.getPresentationName(), true, true);
+    }
+
+    /**
+     * Runs a named stage of a resumable workflow. Completed stages are saved and recorded in a
+     * journal, so they are skipped when the macro is started again. See
+     * {@link macroutils.io.Journal}.
+     *
+     * @param name given stage name. It must be unique in the workflow.
+     * @param task given task to be run. E.g.: {@code () -> runRANS()}.
+     */
+    public void stage(String name, Runnable task) {
+        io.journal.run(name, task, null);
+    }
+
+    /**
+     * Runs a named stage of a resumable workflow, with an idempotency check. See
+     * {@link #stage(String, Runnable)}.
+     *
+     * @param name  given stage name. It must be unique in the workflow.
+     * @param task  given task to be run.
+     * @param check given check that must hold on the loaded Simulation for a completed stage to
+     *              be skipped. E.g.: {@code () -> check.has.volumeMesh()}.
+     */
+    public void stage(String name, Runnable task, BooleanSupplier check) {
+        io.journal.run(name, task, check);
     }
 
     /**
@@ -306,6 +390,15 @@ public final class MacroUtils {
         add.all();
     }
 
+    private boolean _isAlive(Simulation s) {
+        try {
+            s.getSimulationIterator().getCurrentIteration();
+            return true;
+        } catch (RuntimeException ex) {
+            return false;
+        }
+    }
+
     private void _step(int n) {
         io.say.action("Running the case", true);
         io.say.cellCount();
@@ -314,7 +407,9 @@ public final class MacroUtils {
             return;
         }
         set.suggestedPreRun();
-        if (n > 0) {
+        if (io.telemetry.isEnabled()) {
+            io.telemetry.run(n);
+        } else if (n > 0) {
             String goal = check.is.unsteady() ? "timesteps" : "iterations";
             io.say.msg(true, "Running for %d %s...", n, goal);
             _sim.getSimulationIterator().step(n);
@@ -347,4 +442,43 @@ public final class MacroUtils {
         }
     }
 
+    /**
+     * Fully wired MacroUtils objects of a Simulation.
+     */
+    private class Session {
+
+        private final MainCreator _add = add;
+        private final MainChecker _check = check;
+        private final MainClearer _clear = clear;
+        private final MainCloser _close = close;
+        private final MainDisabler _disable = disable;
+        private final MainEnabler _enable = enable;
+        private final MainGetter _get = get;
+        private final MainOpener _open = open;
+        private final MainRemover _remove = remove;
+        private final MainResetter _reset = reset;
+        private final MainSetter _set = set;
+        private final MainTemplates _templates = templates;
+        private final MainUpdater _update = update;
+        private final UserDeclarations _ud = userDeclarations;
+
+        private void restore() {
+            add = _add;
+            check = _check;
+            clear = _clear;
+            close = _close;
+            disable = _disable;
+            enable = _enable;
+            get = _get;
+            open = _open;
+            remove = _remove;
+            reset = _reset;
+            set = _set;
+            templates = _templates;
+            update = _update;
+            userDeclarations = _ud;
+        }
+
+    }
+
 }
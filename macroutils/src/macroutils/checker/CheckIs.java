@@ -9,6 +9,7 @@ import star.base.neo.NamedObject;
 import star.base.report.Monitor;
 import star.base.report.ReportMonitor;
 import star.cadmodeler.SolidModelPart;
+import star.common.AbortFileStoppingCriterion;
 import star.common.Boundary;
 import star.common.CoordinateSystem;
 import star.common.CylindricalCoordinateSystem;
@@ -16,10 +17,12 @@ import star.common.FieldFunction;
 import star.common.FieldFunctionTypeOption;
 import star.common.FluidRegion;
 import star.common.GeometryPart;
+import star.common.InnerIterationStoppingCriterion;
 import star.common.ModelManager;
 import star.common.PartCurve;
 import star.common.PartGroupDataSet;
 import star.common.PartSurface;
+import star.common.PhysicalTimeStoppingCriterion;
 import star.common.PhysicsContinuum;
 import star.common.PlottingMode;
 import star.common.Region;
@@ -27,7 +30,9 @@ import star.common.ResidualMonitor;
 import star.common.ResidualPlot;
 import star.common.Simulation;
 import star.common.SolidRegion;
+import star.common.SolverStoppingCriterion;
 import star.common.StarPlot;
+import star.common.StepStoppingCriterion;
 import star.common.Units;
 import star.common.WallBoundary;
 import star.meshing.AutoMeshOperation;
@@ -353,6 +358,46 @@ public class CheckIs {
         return gp instanceof SolidModelPart;
     }
 
+    /**
+     * Is any enabled Stopping Criteria satisfied? Use it when advancing the solver in chunks,
+     * e.g., with {@link star.common.SimulationIterator#step}, which does not check them.
+     * <ul>
+     * <li>Maximum Steps and Maximum Physical Time are compared to the current solver state;
+     * <li>The Stop File is looked for as an absolute path or relative to
+     * {@link UserDeclarations#simPath};
+     * <li>Any other criterion, e.g., Monitor based, is taken as reported by the solver;
+     * <li>Maximum Inner Iterations is ignored, since it does not stop the run.
+     * </ul>
+     * Criteria are combined with an <i>OR</i>.
+     *
+     * @return True or False.
+     */
+    public boolean stoppingCriteriaSatisfied() {
+        for (SolverStoppingCriterion ssc : _sim.getSolverStoppingCriterionManager().getObjects()) {
+            if (!ssc.getIsUsed() || ssc instanceof InnerIterationStoppingCriterion) {
+                continue;
+            }
+            boolean satisfied;
+            if (ssc instanceof StepStoppingCriterion ssc2) {
+                satisfied = _mu.get.solver.steps() >= ssc2.getMaximumNumberSteps();
+            } else if (ssc instanceof PhysicalTimeStoppingCriterion ptsc) {
+                satisfied = _mu.get.solver.physicalTime()
+                        >= ptsc.getMaximumTime().getInternalValue() * (1.0 - 1e-9);
+            } else if (ssc instanceof AbortFileStoppingCriterion afsc) {
+                File f = new File(afsc.getAbortFilePath());
+                satisfied = (f.isAbsolute() ? f : new File(_ud.simPath, f.getPath())).isFile();
+            } else {
+                satisfied = ssc.getIsSatisfied();
+            }
+            if (satisfied) {
+                _io.say.msg(true, "Stopping Criteria satisfied: \"%s\".",
+                        ssc.getPresentationName());
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Is this a Streamline Displayer?
      *
@@ -1,12 +1,26 @@
 package macroutils.creator;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import macroutils.MacroUtils;
 import macroutils.StaticDeclarations;
 import macroutils.UserDeclarations;
+import macroutils.getter.BoundingBoxTree;
 import star.base.neo.DoubleVector;
 import star.cadmodeler.Body;
+import star.common.GeometryPart;
+import star.common.GeometryPartManager;
 import star.common.LabCoordinateSystem;
 import star.common.PartSurface;
 import star.common.Simulation;
@@ -117,16 +131,86 @@ public class CreateGeometry {
      * Find Part/Part contacts within a given tolerance specified in the default units. See
      * {@link UserDeclarations#defUnitLength}.
      *
+     * All Parts are handed at once to STAR-CCM+. See {@link #contacts(ArrayList, double, boolean)}
+     * for filtering them by their bounding boxes first.
+     *
      * @param <T> any Class that extends from MeshPart object in STAR-CCM+.
      * @param agp given ArrayList of Geometry/Mesh Parts.
      * @param tol given tolerance in {@link UserDeclarations#defUnitLength} unit.
      */
     public <T extends MeshPart> void contacts(ArrayList<T> agp, double tol) {
+        contacts(agp, tol, false);
+    }
+
+    /**
+     * Find Part/Part contacts within a given tolerance specified in the default units. See
+     * {@link UserDeclarations#defUnitLength}.
+     *
+     * When filtering, the bounding boxes of the given Parts are queried again, inflated by the
+     * tolerance, and STAR-CCM+ is only asked to look for contacts within each cluster of
+     * overlapping Parts. Parts that do not overlap anything are skipped. If any Part has no
+     * bounding box, all Parts are handed at once to STAR-CCM+ instead.
+     *
+     * @param <T>       any Class that extends from MeshPart object in STAR-CCM+.
+     * @param agp       given ArrayList of Geometry/Mesh Parts.
+     * @param tol       given tolerance in {@link UserDeclarations#defUnitLength} unit.
+     * @param prefilter given option to filter candidate pairs by their bounding boxes first, using
+     *                  the Part Surfaces spatial index (see
+     *                  {@link macroutils.getter.GetPartSurfaces#index}). False hands all Parts at
+     *                  once to STAR-CCM+, which tests every pair.
+     */
+    public <T extends MeshPart> void contacts(ArrayList<T> agp, double tol, boolean prefilter) {
         _io.say.action("Finding Part/Part Contacts", true);
         PartRepresentation pr = _get.geometries.representation();
         double tol_m = tol * _ud.defUnitLength.getConversion();
         _io.say.value("Tolerance", tol_m, _ud.unit_m, true);
-        pr.findPartPartContacts(new ArrayList<>(agp), tol_m);
+        _io.say.value("Number of Parts", agp.size(), true);
+        if (!prefilter || agp.size() < 3) {
+            pr.findPartPartContacts(new ArrayList<>(agp), tol_m);
+            _io.say.ok(true);
+            return;
+        }
+        long t0 = System.nanoTime();
+        ArrayList<double[]> boxes = _partBoxes(agp, tol_m);
+        long t1 = System.nanoTime();
+        int[] parent = new int[agp.size()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        long pairs = _sweepAndPrune(boxes, parent);
+        LinkedHashMap<Integer, ArrayList<MeshPart>> clusters = new LinkedHashMap<>();
+        ArrayList<MeshPart> unboxed = new ArrayList<>();
+        for (int i = 0; i < agp.size(); i++) {
+            if (boxes.get(i) == null) {
+                unboxed.add(agp.get(i));
+                continue;
+            }
+            clusters.computeIfAbsent(_root(parent, i), k -> new ArrayList<>()).add(agp.get(i));
+        }
+        if (!unboxed.isEmpty()) {
+            //-- Nothing can be ruled out against a Part without a box.
+            clusters.clear();
+            clusters.put(0, new ArrayList<>(agp));
+        }
+        clusters.values().removeIf(c -> c.size() < 2);
+        long t2 = System.nanoTime();
+        long allPairs = (long) agp.size() * (agp.size() - 1) / 2;
+        int largest = clusters.values().stream().mapToInt(ArrayList::size).max().orElse(0);
+        long tested = clusters.values().stream()
+                .mapToLong(c -> (long) c.size() * (c.size() - 1) / 2).sum();
+        _io.say.msg(true, "Candidate Pairs (Bounding Boxes): %d.", pairs);
+        _io.say.value("Parts without Bounding Box", unboxed.size(), true);
+        _io.say.value("Clusters of Overlapping Parts", clusters.size(), true);
+        _io.say.value("Largest Cluster (Parts)", largest, true);
+        _io.say.msg(true, "Pairs tested by STAR-CCM+: %d of %d (reduction ratio: %.1fx).",
+                tested, allPairs, (tested == 0) ? allPairs : (double) allPairs / tested);
+        for (ArrayList<MeshPart> cluster : clusters.values()) {
+            pr.findPartPartContacts(new ArrayList<>(cluster), tol_m);
+        }
+        long t3 = System.nanoTime();
+        _io.say.value("Bounding Boxes Time (s)", (t1 - t0) / 1e9, true);
+        _io.say.value("Broad Phase Time (s)", (t2 - t1) / 1e9, true);
+        _io.say.value("Contact Detection Time (s)", (t3 - t2) / 1e9, true);
         _io.say.ok(true);
     }
 
@@ -187,6 +271,88 @@ public class CreateGeometry {
         _io.say.ok(true);
     }
 
+    /**
+     * Imports many CAD files using a local cache of tessellated DBS files, in the default
+     * {@link UserDeclarations#dbsPath} folder. See {@link #importParts(ArrayList, File)}.
+     *
+     * @param files given ArrayList of CAD or DBS files.
+     * @return An ArrayList with the Geometry Parts imported.
+     */
+    public ArrayList<GeometryPart> importParts(ArrayList<File> files) {
+        return importParts(files, new File(_ud.dbsPath, "TessellationCache"));
+    }
+
+    /**
+     * Imports many CAD files using a local cache of tessellated DBS files.
+     *
+     * Every file is hashed together with the default Tessellation option
+     * ({@link UserDeclarations#defTessOpt}) and the Sharp Edge angle
+     * ({@link UserDeclarations#mshSharpEdgeAngle}). Files already in the cache are imported from
+     * their DBS counterparts, skipping tessellation. Only new or changed files are tessellated and
+     * then written to the cache, after which the tessellated Parts are replaced by the cached ones.
+     * This way a file gives the same Part type and name whether it was cached or not. DBS files are
+     * imported as they are.
+     *
+     * @param files    given ArrayList of CAD or DBS files.
+     * @param cacheDir given folder for the cache. It is created if needed.
+     * @return An ArrayList with the Geometry Parts imported.
+     */
+    public ArrayList<GeometryPart> importParts(ArrayList<File> files, File cacheDir) {
+        _io.say.action("Importing CAD Parts with Tessellation Cache", true);
+        _io.say.value("Number of Files", files.size(), true);
+        _io.say.value("Cache Folder", cacheDir.toString(), true, true);
+        if (!cacheDir.isDirectory() && !cacheDir.mkdirs()) {
+            _io.say.msg("Could not create cache folder. Importing without cache...");
+        }
+        long t0 = System.nanoTime();
+        //-- Hashing is client side only and can be done concurrently.
+        ConcurrentHashMap<File, String> hashes = new ConcurrentHashMap<>();
+        files.parallelStream().filter(File::isFile).filter(f -> !_isDbs(f)).forEach(f -> {
+            String hash = _hash(f);
+            if (hash != null) {
+                hashes.put(f, hash);
+            }
+        });
+        long t1 = System.nanoTime();
+        PartImportManager pim = _sim.get(PartImportManager.class);
+        SimulationPartManager spm = _sim.get(SimulationPartManager.class);
+        GeometryPartManager gpm = _sim.get(GeometryPartManager.class);
+        ArrayList<GeometryPart> imported = new ArrayList<>();
+        int hits = 0;
+        for (File f : files) {
+            if (!f.isFile()) {
+                _io.say.value("File not found", f.toString(), true, true);
+                continue;
+            }
+            String name = _get.strings.fileBasename(f.getName());
+            File cached = hashes.containsKey(f) ? new File(cacheDir, hashes.get(f) + ".dbs") : null;
+            if (cached != null && cached.isFile()) {
+                _io.say.msg(true, "  - Cache hit: \"%s\"...", f.getName());
+                imported.addAll(_importCached(pim, cached, name));
+                hits++;
+                continue;
+            }
+            _io.say.msg(true, "  - Tessellating: \"%s\"...", f.getName());
+            ArrayList<GeometryPart> before = _get.geometries.all(false);
+            importPart(f);
+            ArrayList<GeometryPart> agp = _newParts(before);
+            if (cached != null && cacheDir.isDirectory() && !agp.isEmpty()
+                    && _exportCached(spm, agp, cached, name)) {
+                gpm.removeObjects(agp);
+                agp = _importCached(pim, cached, name);
+            }
+            imported.addAll(agp);
+        }
+        long t2 = System.nanoTime();
+        _io.say.value("Cache Hits", hits, true);
+        _io.say.value("Files Tessellated", files.size() - hits, true);
+        _io.say.value("Hashing Time (s)", (t1 - t0) / 1e9, true);
+        _io.say.value("Import Time (s)", (t2 - t1) / 1e9, true);
+        _io.say.objects(imported, "Geometry Parts imported", true);
+        _io.say.ok(true);
+        return imported;
+    }
+
     /**
      * Creates a Simple Sphere Part with the default Tessellation option. See
      * {@link UserDeclarations#defTessOpt}. The origin is located in the Centroid of the given Part
@@ -241,4 +407,145 @@ public class CreateGeometry {
         _ud = _mu.userDeclarations;
     }
 
+    /**
+     * Writes Parts to a temporary DBS file first and then renames it, so an interrupted export
+     * never leaves a truncated file in the cache.
+     */
+    private boolean _exportCached(SimulationPartManager spm, ArrayList<GeometryPart> agp,
+            File cached, String name) {
+        File tmp = new File(cached.getParentFile(), cached.getName() + ".tmp.dbs");
+        try {
+            spm.exportDbsParts(tmp.toString(), agp, name);
+            Files.move(tmp.toPath(), cached.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            _io.say.msg(true, "Could not write to cache: %s", ex.getMessage());
+            tmp.delete();
+            return false;
+        }
+    }
+
+    /**
+     * SHA-256 of the file contents plus the tessellation settings.
+     */
+    private String _hash(File f) {
+        try (InputStream is = new FileInputStream(f)) {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[1 << 16];
+            int n;
+            while ((n = is.read(buffer)) > 0) {
+                md.update(buffer, 0, n);
+            }
+            md.update(String.format("|%s|%s|%g", f.getName(),
+                    _ud.defTessOpt.getValue(), _ud.mshSharpEdgeAngle)
+                    .getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder();
+            for (byte b : md.digest()) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (IOException | NoSuchAlgorithmException ex) {
+            _io.say.msg(true, "Could not hash file \"%s\": %s", f.getName(), ex.getMessage());
+            return null;
+        }
+    }
+
+    private boolean _isDbs(File f) {
+        return _get.strings.fileExtension(f.getName()).equalsIgnoreCase("dbs");
+    }
+
+    private ArrayList<GeometryPart> _importCached(PartImportManager pim, File cached,
+            String name) {
+        ArrayList<GeometryPart> before = _get.geometries.all(false);
+        pim.importDbsPart(cached.toString(), "OneSurfacePerPatch", "OnePartPerFile", true,
+                _ud.unit_m, 1);
+        ArrayList<GeometryPart> agp = _newParts(before);
+        agp.forEach(gp -> gp.setPresentationName(name));
+        return agp;
+    }
+
+    private ArrayList<GeometryPart> _newParts(ArrayList<GeometryPart> before) {
+        ArrayList<GeometryPart> agp = _get.geometries.all(false);
+        agp.removeAll(before);
+        return agp;
+    }
+
+    /**
+     * Bounding boxes {minX, minY, minZ, maxX, maxY, maxZ} in meters, inflated by the tolerance.
+     * Part Surfaces of the given Parts are queried again, since they may have moved since indexed.
+     * Null for Parts without indexed Part Surfaces.
+     */
+    private <T extends MeshPart> ArrayList<double[]> _partBoxes(ArrayList<T> agp, double tol_m) {
+        BoundingBoxTree<PartSurface> index = _get.partSurfaces.index(false);
+        ArrayList<PartSurface> aps = new ArrayList<>();
+        agp.forEach(mp -> aps.addAll(mp.getPartSurfaces()));
+        _get.partSurfaces.updateIndex(aps);
+        ArrayList<double[]> boxes = new ArrayList<>();
+        for (T mp : agp) {
+            double[] box = null;
+            for (PartSurface ps : mp.getPartSurfaces()) {
+                double[] psBox = index.box(ps);
+                if (psBox == null) {
+                    continue;
+                }
+                if (box == null) {
+                    box = psBox;
+                    continue;
+                }
+                for (int i = 0; i < 3; i++) {
+                    box[i] = Math.min(box[i], psBox[i]);
+                    box[3 + i] = Math.max(box[3 + i], psBox[3 + i]);
+                }
+            }
+            if (box != null) {
+                for (int i = 0; i < 3; i++) {
+                    box[i] -= tol_m;
+                    box[3 + i] += tol_m;
+                }
+            }
+            boxes.add(box);
+        }
+        return boxes;
+    }
+
+    private int _root(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    /**
+     * Sweep and prune along X, joining overlapping boxes into the same cluster.
+     *
+     * @return The number of overlapping pairs.
+     */
+    private long _sweepAndPrune(ArrayList<double[]> boxes, int[] parent) {
+        ArrayList<Integer> sorted = new ArrayList<>();
+        for (int i = 0; i < boxes.size(); i++) {
+            if (boxes.get(i) != null) {
+                sorted.add(i);
+            }
+        }
+        sorted.sort(Comparator.comparingDouble(i -> boxes.get(i)[0]));
+        ArrayList<Integer> active = new ArrayList<>();
+        long pairs = 0;
+        for (int i : sorted) {
+            double[] bi = boxes.get(i);
+            active.removeIf(j -> boxes.get(j)[3] < bi[0]);
+            for (int j : active) {
+                double[] bj = boxes.get(j);
+                if (bi[1] > bj[4] || bj[1] > bi[4] || bi[2] > bj[5] || bj[2] > bi[5]) {
+                    continue;
+                }
+                pairs++;
+                parent[_root(parent, i)] = _root(parent, j);
+            }
+            active.add(i);
+        }
+        return pairs;
+    }
+
 }
@@ -292,6 +292,24 @@ public class CreateMeshOperation {
      */
     public DirectedMeshOperation directedMeshing_Channel(PartSurface src, PartSurface tgt,
             int nX, int nY, int nZ) {
+        return directedMeshing_Channel(src, tgt, nX, nY, nZ, true);
+    }
+
+    /**
+     * Creates a Directed Mesh Operation in a squared Channel with the option of postponing its
+     * execution. Useful when many operations are created and executed at once later on, e.g., via
+     * {@link macroutils.misc.MainUpdater#volumeMesh}.
+     *
+     * @param src     given Source Part Surface.
+     * @param tgt     given Target Part Surface.
+     * @param nX      given number of points in X-direction.
+     * @param nY      given number of points in Y-direction.
+     * @param nZ      given number of points in Z-direction.
+     * @param execute given option to execute the operation right away.
+     * @return The DirectedMeshOperation.
+     */
+    public DirectedMeshOperation directedMeshing_Channel(PartSurface src, PartSurface tgt,
+            int nX, int nY, int nZ, boolean execute) {
         _io.say.action("Creating a Directed Mesh Operation in a Channel", true);
         _io.say.msg("Number of Elements:");
         _io.say.msg(true, "  - X Direction: %d;", nX);
@@ -364,7 +382,9 @@ public class CreateMeshOperation {
                 .createDirectedMeshDistribution(new Vector<>(_get.objects.arrayList(dmpc)),
                         "Constant");
         dmd.getDefaultValues().get(DirectedMeshNumLayers.class).setNumLayers(nVol);
-        dmo.execute();
+        if (execute) {
+            dmo.execute();
+        }
         _io.say.created(dmo, true);
         return dmo;
     }
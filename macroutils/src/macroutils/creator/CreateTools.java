@@ -3,6 +3,8 @@ package macroutils.creator;
 import java.awt.Color;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import macroutils.MacroUtils;
 import macroutils.StaticDeclarations;
 import macroutils.UserDeclarations;
@@ -244,7 +246,8 @@ public class CreateTools {
     }
 
     /**
-     * Creates a User Defined Field Function.
+     * Creates a User Defined Field Function. If a Field Function with the same name already
+     * exists, that one is returned instead.
      *
      * @param name given Field Function name.
      * @param def  given Field Function definition.
@@ -254,6 +257,27 @@ public class CreateTools {
      */
     public FieldFunction fieldFunction(String name, String def, Dimensions dim,
             FieldFunctionTypeOption.Type type) {
+        return fieldFunction(name, def, dim, type, false);
+    }
+
+    /**
+     * Creates a User Defined Field Function, optionally reusing an equivalent one. If a Field
+     * Function with the same name already exists, that one is returned instead.
+     *
+     * When reusing, a User Field Function with an equivalent definition, same type and same
+     * Dimensions is returned, even if it has a different name. Definitions are compared regardless
+     * of white spaces and redundant outer parentheses. Other definitions must then reference the
+     * returned Field Function by its own function name, not by the given name.
+     *
+     * @param name  given Field Function name.
+     * @param def   given Field Function definition.
+     * @param dim   given Dimensions. Null for dimensionless.
+     * @param type  given type.
+     * @param reuse given option for reusing an equivalent User Field Function. True or False.
+     * @return The FieldFunction.
+     */
+    public FieldFunction fieldFunction(String name, String def, Dimensions dim,
+            FieldFunctionTypeOption.Type type, boolean reuse) {
 
         _io.say.action("Creating a Field Function", true);
         FieldFunction ff = _get.objects.fieldFunction(name, false);
@@ -263,6 +287,15 @@ public class CreateTools {
             return ff;
         }
 
+        UserFieldFunction equivalent = reuse ? _equivalent(def, dim, type) : null;
+        if (equivalent != null) {
+            _io.say.value("Equivalent Field Function already exists",
+                    equivalent.getPresentationName(), true, true);
+            _io.say.msg(true, "WARNING! Reference it as \"$%s\" instead of \"%s\".",
+                    equivalent.getFunctionName(), name);
+            return equivalent;
+        }
+
         UserFieldFunction uff = _sim.getFieldFunctionManager().createFieldFunction();
         uff.setPresentationName(name);
         uff.setFunctionName(name.replaceAll("( |\\(|\\)|)", ""));
@@ -272,7 +305,7 @@ public class CreateTools {
                 true);
         _io.say.value("Definition", uff.getDefinition(), true, true);
 
-        if (dim != null || dim != new Dimensions()) {
+        if (dim != null) {
             uff.setDimensions(dim);
         }
 
@@ -281,6 +314,57 @@ public class CreateTools {
 
     }
 
+    /**
+     * Factors parenthesized subexpressions repeated across User Field Functions into shared
+     * scalar Field Functions, so they are evaluated only once. Definitions using them are
+     * rewritten to reference the shared ones. Subexpressions with vectors or function call
+     * arguments are left untouched.
+     *
+     * @param minLength given minimum subexpression length, in characters without white spaces,
+     *                  worth sharing. E.g.: 10.
+     * @return An ArrayList with the shared Field Functions created or reused.
+     */
+    public ArrayList<FieldFunction> fieldFunctionSubexpressions(int minLength) {
+        _io.say.action("Sharing Field Function Subexpressions", true);
+        ArrayList<FieldFunction> shared = new ArrayList<>();
+        ArrayList<UserFieldFunction> auff = _userFieldFunctions();
+        while (true) {
+            HashMap<String, Integer> counts = new HashMap<>();
+            for (UserFieldFunction uff : auff) {
+                String def = _normalizeDefinition(uff.getDefinition());
+                for (int[] span : _subexpressions(def)) {
+                    String sub = def.substring(span[0] + 1, span[1]);
+                    if (sub.length() >= minLength) {
+                        counts.merge(sub, 1, Integer::sum);
+                    }
+                }
+            }
+            String best = counts.keySet().stream()
+                    .filter(sub -> counts.get(sub) > 1)
+                    .max(Comparator.comparingInt(String::length)).orElse(null);
+            if (best == null) {
+                break;
+            }
+            String name = _getSharedName(best);
+            FieldFunction ff = fieldFunction(name, best, new Dimensions(),
+                    FieldFunctionTypeOption.Type.SCALAR);
+            shared.add(ff);
+            auff.remove(ff);
+            String ref = "$" + ff.getFunctionName();
+            for (UserFieldFunction uff : auff) {
+                String def = _normalizeDefinition(uff.getDefinition());
+                String newDef = _replaceSubexpression(def, best, ref);
+                if (!newDef.equals(def)) {
+                    uff.setDefinition(newDef);
+                    _io.say.value(uff.getPresentationName(), uff.getDefinition(), true, true);
+                }
+            }
+        }
+        _io.say.value("Shared Field Functions", shared.size(), true);
+        _io.say.ok(true);
+        return shared;
+    }
+
     /**
      * Creates a Translation Motion with the Translation Velocity given in default units. See
      * {@link UserDeclarations#defUnitVel}.
@@ -687,4 +771,110 @@ public class CreateTools {
         return uero;
     }
 
+
+    private UserFieldFunction _equivalent(String def, Dimensions dim,
+            FieldFunctionTypeOption.Type type) {
+        Dimensions d = (dim == null) ? new Dimensions() : dim;
+        String norm = _normalizeDefinition(def);
+        for (UserFieldFunction uff : _userFieldFunctions()) {
+            if (uff.getTypeOption().getSelectedElement() == type && uff.getDimensions().equals(d)
+                    && _normalizeDefinition(uff.getDefinition()).equals(norm)) {
+                return uff;
+            }
+        }
+        return null;
+    }
+
+    private String _getSharedName(String def) {
+        for (int k = 1;; k++) {
+            String name = String.format("Shared Subexpression %d", k);
+            FieldFunction ff = _get.objects.fieldFunction(name, false);
+            if (ff == null || (ff instanceof UserFieldFunction uff
+                    && _normalizeDefinition(uff.getDefinition()).equals(def))) {
+                return name;
+            }
+        }
+    }
+
+    private boolean _hasTopLevelComma(String s) {
+        int depth = 0;
+        for (char c : s.toCharArray()) {
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String _normalizeDefinition(String def) {
+        String s = def.replaceAll("\\s+", "");
+        while (s.startsWith("(") && _subexpressionEnd(s, 0) == s.length() - 1) {
+            s = s.substring(1, s.length() - 1);
+        }
+        return s;
+    }
+
+    private int _subexpressionEnd(String s, int start) {
+        int depth = 0;
+        for (int i = start; i < s.length(); i++) {
+            if (s.charAt(i) == '(') {
+                depth++;
+            } else if (s.charAt(i) == ')' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Replaces the parenthesized subexpressions that can be shared and match a given one,
+     * outermost first. Function call arguments are not touched.
+     */
+    private String _replaceSubexpression(String def, String sub, String ref) {
+        StringBuilder sb = new StringBuilder();
+        int pos = 0;
+        for (int[] span : _subexpressions(def)) {
+            if (span[0] < pos || !def.substring(span[0] + 1, span[1]).equals(sub)) {
+                continue;
+            }
+            sb.append(def, pos, span[0]).append(ref);
+            pos = span[1] + 1;
+        }
+        return sb.append(def.substring(pos)).toString();
+    }
+
+    /**
+     * Gets the parenthesized subexpressions that can be shared, as {start, end} positions of
+     * their parentheses, in order of appearance. Function call arguments, vectors and
+     * subexpressions with top level commas are skipped.
+     */
+    private ArrayList<int[]> _subexpressions(String def) {
+        ArrayList<int[]> subs = new ArrayList<>();
+        for (int i = 0; i < def.length(); i++) {
+            if (def.charAt(i) != '(') {
+                continue;
+            }
+            char prev = (i > 0) ? def.charAt(i - 1) : ' ';
+            boolean isCall = Character.isLetterOrDigit(prev) || prev == '_';
+            int end = _subexpressionEnd(def, i);
+            if (isCall || end < 0) {
+                continue;
+            }
+            String sub = def.substring(i + 1, end);
+            if (!sub.contains("$$") && !sub.contains("[") && !_hasTopLevelComma(sub)) {
+                subs.add(new int[]{ i, end });
+            }
+        }
+        return subs;
+    }
+
+    private ArrayList<UserFieldFunction> _userFieldFunctions() {
+        return new ArrayList<>(_sim.getFieldFunctionManager()
+                .getObjectsOf(UserFieldFunction.class));
+    }
+
 }
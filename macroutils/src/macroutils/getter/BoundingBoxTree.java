@@ -0,0 +1,336 @@
+package macroutils.getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.PriorityQueue;
+
+/**
+ * Bounding Volume Hierarchy (BVH) over axis aligned bounding boxes, backed by primitive arrays.
+ *
+ * Items can be added, updated or removed at any time and the tree is rebuilt lazily on the next
+ * query. Queries are: boxes overlapping a box, boxes crossing a plane and nearest boxes to a point.
+ *
+ * @param <T> the type of items stored.
+ *
+ * @since October of 2026
+ * @author Fabio Kasper
+ */
+public class BoundingBoxTree<T> {
+
+    private static final int _LEAF_SIZE = 4;
+
+    private double[] _boxes = new double[6 * 16];
+    private boolean _dirty = false;
+    private final HashMap<T, Integer> _ids = new HashMap<>();
+    private final ArrayList<T> _items = new ArrayList<>();
+    private double[] _nodeBoxes = new double[0];
+    private int[] _nodeCounts = new int[0];
+    private int[] _nodeRights = new int[0];
+    private int[] _nodeStarts = new int[0];
+    private int _nodes = 0;
+    private int[] _order = new int[0];
+
+    /**
+     * Adds or updates an item.
+     *
+     * @param item given item.
+     * @param min  given minimum coordinates {x, y, z}.
+     * @param max  given maximum coordinates {x, y, z}.
+     */
+    public void put(T item, double[] min, double[] max) {
+        Integer id = _ids.get(item);
+        if (id == null) {
+            id = _items.size();
+            _items.add(item);
+            _ids.put(item, id);
+            if (_boxes.length < 6 * _items.size()) {
+                _boxes = Arrays.copyOf(_boxes, 12 * _items.size());
+            }
+        }
+        for (int i = 0; i < 3; i++) {
+            _boxes[6 * id + i] = Math.min(min[i], max[i]);
+            _boxes[6 * id + 3 + i] = Math.max(min[i], max[i]);
+        }
+        _dirty = true;
+    }
+
+    /**
+     * Gets the bounding box of an item.
+     *
+     * @param item given item.
+     * @return An array with {minX, minY, minZ, maxX, maxY, maxZ}. Null if not found.
+     */
+    public double[] box(T item) {
+        Integer id = _ids.get(item);
+        return (id == null) ? null : Arrays.copyOfRange(_boxes, 6 * id, 6 * id + 6);
+    }
+
+    /**
+     * Does the tree contain an item?
+     *
+     * @param item given item.
+     * @return True or False.
+     */
+    public boolean contains(T item) {
+        return _ids.containsKey(item);
+    }
+
+    /**
+     * Gets all items stored.
+     *
+     * @return An ArrayList of items.
+     */
+    public ArrayList<T> items() {
+        return new ArrayList<>(_items);
+    }
+
+    /**
+     * Gets the k items nearest to a point, using the distance from the point to their bounding
+     * boxes. Items containing the point are at distance zero.
+     *
+     * @param point given point {x, y, z}.
+     * @param k     given number of items.
+     * @return An ArrayList of items, nearest first.
+     */
+    public ArrayList<T> nearest(double[] point, int k) {
+        _build();
+        ArrayList<T> found = new ArrayList<>();
+        if (_nodes == 0) {
+            return found;
+        }
+        //-- Entries: {distance, index, isItem}
+        PriorityQueue<double[]> pq = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        pq.add(new double[]{ _distance(_nodeBoxes, 0, point), 0, 0 });
+        while (!pq.isEmpty() && found.size() < k) {
+            double[] e = pq.poll();
+            int idx = (int) e[1];
+            if (e[2] == 1) {
+                found.add(_items.get(idx));
+                continue;
+            }
+            if (_nodeCounts[idx] > 0) {
+                for (int i = _nodeStarts[idx]; i < _nodeStarts[idx] + _nodeCounts[idx]; i++) {
+                    pq.add(new double[]{ _distance(_boxes, _order[i], point), _order[i], 1 });
+                }
+                continue;
+            }
+            for (int child : new int[]{ idx + 1, _nodeRights[idx] }) {
+                pq.add(new double[]{ _distance(_nodeBoxes, child, point), child, 0 });
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Gets all items whose bounding boxes overlap a given box.
+     *
+     * @param min given minimum coordinates {x, y, z}.
+     * @param max given maximum coordinates {x, y, z}.
+     * @return An ArrayList of items.
+     */
+    public ArrayList<T> overlapping(double[] min, double[] max) {
+        double[] q = new double[]{ min[0], min[1], min[2], max[0], max[1], max[2] };
+        return _query((b, i) -> _overlaps(b, i, q));
+    }
+
+    /**
+     * Gets all items whose bounding boxes are crossed by a plane.
+     *
+     * @param origin given point on the plane {x, y, z}.
+     * @param normal given plane normal {x, y, z}.
+     * @return An ArrayList of items.
+     */
+    public ArrayList<T> crossing(double[] origin, double[] normal) {
+        return _query((b, i) -> _crosses(b, i, origin, normal));
+    }
+
+    /**
+     * Removes an item.
+     *
+     * @param item given item.
+     */
+    public void remove(T item) {
+        Integer id = _ids.remove(item);
+        if (id == null) {
+            return;
+        }
+        int last = _items.size() - 1;
+        if (id != last) {
+            T moved = _items.get(last);
+            _items.set(id, moved);
+            _ids.put(moved, id);
+            System.arraycopy(_boxes, 6 * last, _boxes, 6 * id, 6);
+        }
+        _items.remove(last);
+        _dirty = true;
+    }
+
+    /**
+     * Gets the number of items stored.
+     *
+     * @return The number of items.
+     */
+    public int size() {
+        return _items.size();
+    }
+
+    private void _build() {
+        if (!_dirty) {
+            return;
+        }
+        int n = _items.size();
+        _order = new int[n];
+        for (int i = 0; i < n; i++) {
+            _order[i] = i;
+        }
+        int maxNodes = Math.max(1, 2 * n);
+        _nodeBoxes = new double[6 * maxNodes];
+        _nodeCounts = new int[maxNodes];
+        _nodeRights = new int[maxNodes];
+        _nodeStarts = new int[maxNodes];
+        _nodes = 0;
+        if (n > 0) {
+            _buildNode(0, n);
+        }
+        _dirty = false;
+    }
+
+    private int _buildNode(int start, int end) {
+        int node = _nodes++;
+        double[] c = new double[]{ Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE,
+            -Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE };
+        for (int i = 0; i < 3; i++) {
+            _nodeBoxes[6 * node + i] = Double.MAX_VALUE;
+            _nodeBoxes[6 * node + 3 + i] = -Double.MAX_VALUE;
+        }
+        for (int j = start; j < end; j++) {
+            int id = _order[j];
+            for (int i = 0; i < 3; i++) {
+                _nodeBoxes[6 * node + i] = Math.min(_nodeBoxes[6 * node + i], _boxes[6 * id + i]);
+                _nodeBoxes[6 * node + 3 + i] = Math.max(_nodeBoxes[6 * node + 3 + i],
+                        _boxes[6 * id + 3 + i]);
+                double center = _center(id, i);
+                c[i] = Math.min(c[i], center);
+                c[3 + i] = Math.max(c[3 + i], center);
+            }
+        }
+        if (end - start <= _LEAF_SIZE) {
+            _nodeStarts[node] = start;
+            _nodeCounts[node] = end - start;
+            return node;
+        }
+        int axis = 0;
+        for (int i = 1; i < 3; i++) {
+            if (c[3 + i] - c[i] > c[3 + axis] - c[axis]) {
+                axis = i;
+            }
+        }
+        int mid = (start + end) / 2;
+        _select(start, end - 1, mid, axis);
+        _buildNode(start, mid);
+        _nodeRights[node] = _buildNode(mid, end);
+        return node;
+    }
+
+    private double _center(int id, int axis) {
+        return 0.5 * (_boxes[6 * id + axis] + _boxes[6 * id + 3 + axis]);
+    }
+
+    private boolean _crosses(double[] b, int i, double[] origin, double[] normal) {
+        double dMin = 0.0, dMax = 0.0;
+        for (int k = 0; k < 3; k++) {
+            double lo = (b[6 * i + k] - origin[k]) * normal[k];
+            double hi = (b[6 * i + 3 + k] - origin[k]) * normal[k];
+            dMin += Math.min(lo, hi);
+            dMax += Math.max(lo, hi);
+        }
+        return dMin <= 0.0 && dMax >= 0.0;
+    }
+
+    private double _distance(double[] b, int i, double[] p) {
+        double d2 = 0.0;
+        for (int k = 0; k < 3; k++) {
+            double d = Math.max(0.0, Math.max(b[6 * i + k] - p[k], p[k] - b[6 * i + 3 + k]));
+            d2 += d * d;
+        }
+        return Math.sqrt(d2);
+    }
+
+    private boolean _overlaps(double[] b, int i, double[] q) {
+        for (int k = 0; k < 3; k++) {
+            if (b[6 * i + k] > q[3 + k] || b[6 * i + 3 + k] < q[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ArrayList<T> _query(Test test) {
+        _build();
+        ArrayList<T> found = new ArrayList<>();
+        if (_nodes == 0) {
+            return found;
+        }
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!test.test(_nodeBoxes, node)) {
+                continue;
+            }
+            if (_nodeCounts[node] > 0) {
+                for (int j = _nodeStarts[node]; j < _nodeStarts[node] + _nodeCounts[node]; j++) {
+                    if (test.test(_boxes, _order[j])) {
+                        found.add(_items.get(_order[j]));
+                    }
+                }
+                continue;
+            }
+            if (top + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, 2 * stack.length);
+            }
+            stack[top++] = _nodeRights[node];
+            stack[top++] = node + 1;
+        }
+        return found;
+    }
+
+    /**
+     * Quickselect on the item centers, so the median item sits at position k.
+     */
+    private void _select(int lo, int hi, int k, int axis) {
+        while (lo < hi) {
+            double pivot = _center(_order[(lo + hi) >>> 1], axis);
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (_center(_order[i], axis) < pivot) {
+                    i++;
+                }
+                while (_center(_order[j], axis) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int t = _order[i];
+                    _order[i++] = _order[j];
+                    _order[j--] = t;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private interface Test {
+
+        boolean test(double[] boxes, int index);
+
+    }
+
+}
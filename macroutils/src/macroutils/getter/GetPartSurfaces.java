@@ -2,6 +2,7 @@ package macroutils.getter;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import macroutils.MacroUtils;
 import macroutils.StaticDeclarations;
@@ -34,6 +35,7 @@ public class GetPartSurfaces {
 
     private macroutils.checker.MainChecker _chk = null;
     private MainGetter _get = null;
+    private BoundingBoxTree<PartSurface> _index = null;
     private macroutils.io.MainIO _io = null;
     private MacroUtils _mu = null;
     private Simulation _sim = null;
@@ -120,6 +122,38 @@ public class GetPartSurfaces {
         return byArea(aps, RangeOpts.MIN);
     }
 
+    /**
+     * Gets all Part Surfaces whose bounding boxes overlap a given box, using the spatial index. See
+     * {@link #index}.
+     *
+     * @param min given minimum coordinates {x, y, z} in default units
+     *            ({@link UserDeclarations#defUnitLength}).
+     * @param max given maximum coordinates {x, y, z} in default units.
+     * @param vo  given verbose option. False will not print anything.
+     * @return An ArrayList of Part Surfaces.
+     */
+    public ArrayList<PartSurface> byBox(double[] min, double[] max, boolean vo) {
+        ArrayList<PartSurface> aps = index(false).overlapping(_toSI(min), _toSI(max));
+        _io.say.objects(aps, "Getting Part Surfaces overlapping a box", vo);
+        return aps;
+    }
+
+    /**
+     * Gets all Part Surfaces whose bounding boxes are crossed by a plane, using the spatial index.
+     * See {@link #index}.
+     *
+     * @param origin given point on the plane {x, y, z} in default units
+     *               ({@link UserDeclarations#defUnitLength}).
+     * @param normal given plane normal {x, y, z}.
+     * @param vo     given verbose option. False will not print anything.
+     * @return An ArrayList of Part Surfaces.
+     */
+    public ArrayList<PartSurface> byPlane(double[] origin, double[] normal, boolean vo) {
+        ArrayList<PartSurface> aps = index(false).crossing(_toSI(origin), normal);
+        _io.say.objects(aps, "Getting Part Surfaces crossed by a plane", vo);
+        return aps;
+    }
+
     /**
      * Gets a Part Surface that matches the REGEX search pattern among all Part Surfaces available
      * in the model.
@@ -232,6 +266,29 @@ public class GetPartSurfaces {
         return fromBoundaries(_get.objects.arrayList(b));
     }
 
+    /**
+     * Gets the spatial index on the bounding boxes of all Part Surfaces in the model. It is built
+     * from a single {@link #statistics} pass the first time it is needed and kept up to date by the
+     * split and combine methods in {@link macroutils.setter.SetGeometry}. Coordinates stored are in
+     * meters.
+     *
+     * @param rebuild given option to query all Part Surfaces again, e.g., after importing or
+     *                transforming Geometries.
+     * @return The BoundingBoxTree.
+     */
+    public BoundingBoxTree<PartSurface> index(boolean rebuild) {
+        if (_index != null && !rebuild) {
+            return _index;
+        }
+        _index = new BoundingBoxTree<>();
+        ArrayList<PartSurface> aps = all(false);
+        if (!aps.isEmpty()) {
+            _putAll(statistics(aps));
+        }
+        _io.say.value("Part Surfaces indexed", _index.size(), true);
+        return _index;
+    }
+
     /**
      * Gets its manager object from a Part Surface, if applicable.
      *
@@ -259,6 +316,22 @@ public class GetPartSurfaces {
         return null;
     }
 
+    /**
+     * Gets the Part Surfaces nearest to a point, using the distance to their bounding boxes and the
+     * spatial index. See {@link #index}.
+     *
+     * @param point given point {x, y, z} in default units
+     *              ({@link UserDeclarations#defUnitLength}).
+     * @param k     given number of Part Surfaces.
+     * @param vo    given verbose option. False will not print anything.
+     * @return An ArrayList of Part Surfaces, nearest first.
+     */
+    public ArrayList<PartSurface> nearest(double[] point, int k, boolean vo) {
+        ArrayList<PartSurface> aps = index(false).nearest(_toSI(point), k);
+        _io.say.objects(aps, String.format("Getting %d nearest Part Surfaces", k), vo);
+        return aps;
+    }
+
     /**
      * Gets global and local statistics on the given Part Surfaces. This method is useful for
      * querying the extents of the PartSurfaces as well area. The item with a NULL item means the
@@ -320,6 +393,28 @@ public class GetPartSurfaces {
         return hms;
     }
 
+    /**
+     * Updates the spatial index incrementally, if it was built already. Part Surfaces no longer in
+     * the model are dropped and only the given ones plus the ones not indexed yet, e.g., created
+     * by a split, are queried again. See {@link #index}.
+     *
+     * @param aps given ArrayList of Part Surfaces that changed.
+     */
+    public void updateIndex(ArrayList<PartSurface> aps) {
+        if (_index == null) {
+            return;
+        }
+        HashSet<PartSurface> current = new HashSet<>(all(false));
+        _index.items().stream().filter(ps -> !current.contains(ps)).forEach(_index::remove);
+        ArrayList<PartSurface> toQuery = new ArrayList<>();
+        current.stream().filter(ps -> aps.contains(ps) || !_index.contains(ps))
+                .forEach(toQuery::add);
+        if (toQuery.isEmpty()) {
+            return;
+        }
+        _putAll(statistics(toQuery));
+    }
+
     /**
      * This method is called automatically by {@link MacroUtils}.
      */
@@ -434,6 +529,22 @@ public class GetPartSurfaces {
         return ps;
     }
 
+    private void _putAll(HashMap<PartSurface, NeoProperty> stats) {
+        for (Map.Entry<PartSurface, NeoProperty> entry : stats.entrySet()) {
+            if (entry.getKey() == null) {
+                continue;
+            }
+            double[] min = entry.getValue().getDoubleVector("LabMinRange").toDoubleArray();
+            double[] max = entry.getValue().getDoubleVector("LabMaxRange").toDoubleArray();
+            _index.put(entry.getKey(), min, max);
+        }
+    }
+
+    private double[] _toSI(double[] xyz) {
+        double f = _ud.defUnitLength.getConversion();
+        return new double[]{ xyz[0] * f, xyz[1] * f, xyz[2] * f };
+    }
+
     private static enum RangeOpts {
         MIN, MAX
     }
@@ -1,8 +1,16 @@
 package macroutils.getter;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import macroutils.MacroUtils;
+import star.base.neo.NamedObject;
 import star.base.report.Report;
+import star.base.report.ScalarReport;
 import star.common.Simulation;
 
 /**
@@ -13,6 +21,10 @@ import star.common.Simulation;
  */
 public class GetReports {
 
+    private final HashMap<Report, Double> _cache = new HashMap<>();
+    private int _cacheIteration = -1;
+    private double _cacheTime = Double.NaN;
+    private macroutils.checker.MainChecker _chk = null;
     private MainGetter _get = null;
     private macroutils.io.MainIO _io = null;
     private MacroUtils _mu = null;
@@ -62,12 +74,91 @@ public class GetReports {
         return _get.objects.byREGEX(regexPatt, "Report", all(false), vo);
     }
 
+    /**
+     * Clears the cached Report values. Next evaluation will query the server again.
+     *
+     * Useful when something other than the solver changed the solution, e.g., after reading
+     * a Solution History or changing the Report definition.
+     */
+    public void clearCache() {
+        _cache.clear();
+        _cacheIteration = -1;
+        _cacheTime = Double.NaN;
+    }
+
     /**
      * This method is called automatically by {@link MacroUtils}.
      */
     public void updateInstances() {
+        _chk = _mu.check;
         _get = _mu.get;
         _io = _mu.io;
     }
 
+    /**
+     * Gets the value of a Report. Values are cached for the current solver state (iteration and
+     * physical time) so repeated reads are free while the solution does not change.
+     *
+     * @param r given Report.
+     * @return The Report value, as in {@link Report#getReportMonitorValue}.
+     */
+    public double value(Report r) {
+        _checkCache();
+        if (!_cache.containsKey(r)) {
+            _cache.put(r, r.getReportMonitorValue());
+        }
+        return _cache.get(r);
+    }
+
+    /**
+     * Gets the values of many Reports at once. Reports sharing the same Parts are evaluated
+     * consecutively and values are cached for the current solver state (iteration and physical
+     * time). See {@link #value}.
+     *
+     * @param ar given ArrayList of Reports.
+     * @param vo given verbose option. False will not print anything.
+     * @return A LinkedHashMap with the Report values, following the same order as given.
+     */
+    public LinkedHashMap<Report, Double> values(ArrayList<Report> ar, boolean vo) {
+        _io.say.action("Evaluating Reports", vo);
+        _checkCache();
+        long cached = ar.stream().filter(r -> _cache.containsKey(r)).count();
+        Map<String, List<Report>> groups = ar.stream()
+                .filter(r -> !_cache.containsKey(r))
+                .distinct()
+                .collect(Collectors.groupingBy(r -> _getPartsKey(r), LinkedHashMap::new,
+                        Collectors.toList()));
+        groups.values().forEach(lr -> lr.forEach(r -> _cache.put(r, r.getReportMonitorValue())));
+        LinkedHashMap<Report, Double> values = new LinkedHashMap<>();
+        ar.forEach(r -> values.put(r, _cache.get(r)));
+        _io.say.msg(vo, "Reports given: %d. Cached: %d. Evaluated in %d Part group(s).",
+                ar.size(), cached, groups.size());
+        values.forEach((r, v) -> _io.say.value(r.getPresentationName(), v, vo));
+        _io.say.ok(vo);
+        return values;
+    }
+
+    private void _checkCache() {
+        int iteration = _get.solver.iteration();
+        double time = _chk.is.unsteady() ? _get.solver.physicalTime() : 0.0;
+        if (iteration == _cacheIteration && time == _cacheTime) {
+            return;
+        }
+        _io.say.msgDebug("Report cache reset at iteration %d and time %g.", iteration, time);
+        _cache.clear();
+        _cacheIteration = iteration;
+        _cacheTime = time;
+    }
+
+    private String _getPartsKey(Report r) {
+        if (!(r instanceof ScalarReport)) {
+            return r.getClass().getName();
+        }
+        Collection<NamedObject> parts = ((ScalarReport) r).getParts().getObjects();
+        return parts.stream()
+                .map(no -> _get.strings.information(no))
+                .sorted()
+                .collect(Collectors.joining("|"));
+    }
+
 }
@@ -97,6 +97,33 @@ public class GetSolver {
                 new ArrayList<>(_sim.get(SolutionViewManager.class).getObjects()), vo);
     }
 
+    /**
+     * Gets the current number of steps, as counted by the Maximum Steps stopping criteria, i.e.,
+     * iterations for steady state and timesteps for unsteady Simulations.
+     *
+     * @return The current number of steps.
+     */
+    public int steps() {
+        if (_chk.is.unsteady()) {
+            return _sim.getSimulationIterator().getCurrentTimeLevel();
+        }
+        return iteration();
+    }
+
+    /**
+     * Gets the number of steps left until the Maximum Steps stopping criteria is met. See
+     * {@link #steps}.
+     *
+     * @return The number of steps. Integer.MAX_VALUE if the criteria is disabled.
+     */
+    public int stepsLeft() {
+        StepStoppingCriterion ssc = stoppingCriteria_MaxIterations();
+        if (ssc == null || !ssc.getIsUsed()) {
+            return Integer.MAX_VALUE;
+        }
+        return Math.max(0, ssc.getMaximumNumberSteps() - steps());
+    }
+
     /**
      * Returns the first match of a Stopping Criteria by using a REGEX search pattern.
      *
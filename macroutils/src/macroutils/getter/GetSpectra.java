@@ -0,0 +1,395 @@
+package macroutils.getter;
+
+import java.io.File;
+import java.util.ArrayList;
+import macroutils.MacroUtils;
+import star.base.report.ReportMonitor;
+import star.common.Cartesian2DPlot;
+import star.common.FileTable;
+import star.common.Simulation;
+import star.common.TableDataSet;
+
+/**
+ * Low-level class for getting spectra from signals, such as Monitor histories, with MacroUtils.
+ *
+ * It is written in pure Java and provides:
+ * <ul>
+ * <li>A radix-2 Fast Fourier Transform (FFT). Other lengths use Bluestein's algorithm;
+ * <li>Welch's Power Spectral Density (PSD) with overlapping Hann windowed segments, either at once
+ * or incrementally with {@link Welch}, keeping memory bounded to one segment;
+ * <li>Sound Pressure Level (SPL) in dB.
+ * </ul>
+ *
+ * @since October of 2026
+ * @author Fabio Kasper
+ */
+public class GetSpectra {
+
+    /**
+     * Reference pressure for SPL in air, in Pa.
+     */
+    public static final double P_REF = 2e-5;
+
+    private macroutils.creator.MainCreator _add = null;
+    private MainGetter _get = null;
+    private macroutils.io.MainIO _io = null;
+    private MacroUtils _mu = null;
+    private Simulation _sim = null;
+    private macroutils.UserDeclarations _ud = null;
+
+    /**
+     * Main constructor for this class.
+     *
+     * @param m given MacroUtils object.
+     */
+    public GetSpectra(MacroUtils m) {
+        _mu = m;
+        _sim = m.getSimulation();
+    }
+
+    /**
+     * Computes the in-place Discrete Fourier Transform of a complex signal. Power of 2 lengths use
+     * an iterative radix-2 FFT; other lengths use Bluestein's algorithm.
+     *
+     * @param re given real part. It is overwritten with the result.
+     * @param im given imaginary part. It is overwritten with the result.
+     */
+    public static void fft(double[] re, double[] im) {
+        int n = re.length;
+        if (n < 2) {
+            return;
+        }
+        if (Integer.bitCount(n) == 1) {
+            _radix2(re, im, false);
+        } else {
+            _bluestein(re, im);
+        }
+    }
+
+    /**
+     * Gets the frequencies of a one-sided spectrum.
+     *
+     * @param segment given segment length, in samples.
+     * @param fs      given sampling frequency, in Hz.
+     * @return An array with <i>segment / 2 + 1</i> frequencies, in Hz.
+     */
+    public static double[] frequencies(int segment, double fs) {
+        double[] f = new double[segment / 2 + 1];
+        for (int k = 0; k < f.length; k++) {
+            f[k] = k * fs / segment;
+        }
+        return f;
+    }
+
+    /**
+     * Gets the Welch's one-sided Power Spectral Density from a Report Monitor history. The X
+     * values are taken as time, in seconds, for computing the sampling frequency.
+     *
+     * <b>Note</b>: the whole Monitor history is loaded. For long histories prefer feeding a
+     * {@link Welch} object incrementally.
+     *
+     * @param rm      given Report Monitor.
+     * @param segment given segment length, in samples.
+     * @param overlap given overlap between segments, from 0 to 1. E.g.: 0.5.
+     * @return An array with the PSD, in [unit^2/Hz]. See {@link #frequencies}. An empty array if
+     *         the Monitor has less than 2 samples or they do not span any time.
+     */
+    public double[] psd(ReportMonitor rm, int segment, double overlap) {
+        _io.say.action("Computing the PSD of a Monitor", true);
+        _io.say.object(rm, true);
+        double[] x = rm.getAllXValues();
+        double[] y = rm.getAllYValues();
+        if (x.length < 2 || x[x.length - 1] == x[0]) {
+            _io.say.msg(true, "Not enough samples for a PSD: %d.", x.length);
+            return new double[0];
+        }
+        double fs = (x.length - 1) / (x[x.length - 1] - x[0]);
+        _io.say.value("Samples", y.length, true);
+        _io.say.value("Sampling Frequency [Hz]", fs, true);
+        Welch w = new Welch(segment, overlap, fs);
+        w.add(y);
+        _io.say.value("Segments Averaged", w.getSegments(), true);
+        _io.say.ok(true);
+        return w.psd();
+    }
+
+    /**
+     * Gets the Sound Pressure Level, in dB, for every frequency bin of a one-sided PSD given in
+     * Pa^2/Hz. See {@link #P_REF}.
+     *
+     * @param psd given Power Spectral Density, in Pa^2/Hz.
+     * @param df  given frequency resolution, in Hz.
+     * @return An array with the SPL per bin, in dB.
+     */
+    public static double[] spl(double[] psd, double df) {
+        double[] db = new double[psd.length];
+        for (int k = 0; k < psd.length; k++) {
+            db[k] = 10.0 * Math.log10(Math.max(psd[k] * df, Double.MIN_NORMAL) / (P_REF * P_REF));
+        }
+        return db;
+    }
+
+    /**
+     * Gets the overall Sound Pressure Level, in dB, from a one-sided PSD given in Pa^2/Hz. See
+     * {@link #P_REF}.
+     *
+     * @param psd given Power Spectral Density, in Pa^2/Hz.
+     * @param df  given frequency resolution, in Hz.
+     * @return The overall SPL, in dB.
+     */
+    public static double splOverall(double[] psd, double df) {
+        double sum = 0.0;
+        for (int k = 1; k < psd.length; k++) {
+            sum += psd[k] * df;
+        }
+        return 10.0 * Math.log10(Math.max(sum, Double.MIN_NORMAL) / (P_REF * P_REF));
+    }
+
+    /**
+     * Writes a spectrum into a CSV file in the {@link macroutils.UserDeclarations#simPath} folder
+     * and creates a Plot from it using a File Table.
+     *
+     * @param name given name for the file, table and plot.
+     * @param f    given frequencies, in Hz.
+     * @param psd  given Power Spectral Density.
+     * @param db   given SPL in dB, if applicable. Null to skip it.
+     * @return The Cartesian2DPlot.
+     */
+    public Cartesian2DPlot plot(String name, double[] f, double[] psd, double[] db) {
+        ArrayList<String> data = new ArrayList<>();
+        data.add(db == null ? "Frequency,PSD" : "Frequency,PSD,SPL");
+        for (int k = 0; k < f.length; k++) {
+            String row = String.format("%.9e,%.9e", f[k], psd[k]);
+            data.add(db == null ? row : String.format("%s,%.6f", row, db[k]));
+        }
+        File csv = new File(_ud.simPath, _get.strings.friendlyFilename(name) + ".csv");
+        _io.write.data(csv, data, false);
+        FileTable ft = (FileTable) _sim.getTableManager().createFromFile(csv.toString());
+        Cartesian2DPlot plot = _add.plot.empty();
+        plot.setPresentationName(name);
+        plot.setTitle(name);
+        plot.getDataSetManager().addDataProvider(ft);
+        TableDataSet tds = (TableDataSet) plot.getDataSeriesOrder().getLast();
+        tds.setPresentationName(name);
+        tds.setSeriesName(name);
+        _get.plots.axisX(tds).getTableColumnRef()
+                .setReferencedObject(ft.getColumnDescriptor("Frequency"));
+        _get.plots.axisY(tds).getTableColumnRef()
+                .setReferencedObject(ft.getColumnDescriptor(db == null ? "PSD" : "SPL"));
+        _io.say.created(plot, true);
+        return plot;
+    }
+
+    /**
+     * This method is called automatically by {@link MacroUtils}.
+     */
+    public void updateInstances() {
+        _add = _mu.add;
+        _get = _mu.get;
+        _io = _mu.io;
+        _ud = _mu.userDeclarations;
+    }
+
+    private static void _bluestein(double[] re, double[] im) {
+        int n = re.length;
+        int m = Integer.highestOneBit(2 * n - 1) << 1;
+        double[] cos = new double[n], sin = new double[n];
+        for (int i = 0; i < n; i++) {
+            double angle = Math.PI * ((long) i * i % (2L * n)) / n;
+            cos[i] = Math.cos(angle);
+            sin[i] = Math.sin(angle);
+        }
+        double[] aRe = new double[m], aIm = new double[m];
+        double[] bRe = new double[m], bIm = new double[m];
+        for (int i = 0; i < n; i++) {
+            aRe[i] = re[i] * cos[i] + im[i] * sin[i];
+            aIm[i] = -re[i] * sin[i] + im[i] * cos[i];
+        }
+        bRe[0] = cos[0];
+        bIm[0] = sin[0];
+        for (int i = 1; i < n; i++) {
+            bRe[i] = bRe[m - i] = cos[i];
+            bIm[i] = bIm[m - i] = sin[i];
+        }
+        _radix2(aRe, aIm, false);
+        _radix2(bRe, bIm, false);
+        for (int i = 0; i < m; i++) {
+            double r = aRe[i] * bRe[i] - aIm[i] * bIm[i];
+            aIm[i] = aRe[i] * bIm[i] + aIm[i] * bRe[i];
+            aRe[i] = r;
+        }
+        _radix2(aRe, aIm, true);
+        for (int i = 0; i < n; i++) {
+            re[i] = aRe[i] * cos[i] + aIm[i] * sin[i];
+            im[i] = -aRe[i] * sin[i] + aIm[i] * cos[i];
+        }
+    }
+
+    private static void _radix2(double[] re, double[] im, boolean inverse) {
+        int n = re.length;
+        for (int i = 1, j = 0; i < n; i++) {
+            int bit = n >> 1;
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+            if (i < j) {
+                double t = re[i];
+                re[i] = re[j];
+                re[j] = t;
+                t = im[i];
+                im[i] = im[j];
+                im[j] = t;
+            }
+        }
+        for (int len = 2; len <= n; len <<= 1) {
+            double angle = 2 * Math.PI / len * (inverse ? 1 : -1);
+            double wRe = Math.cos(angle), wIm = Math.sin(angle);
+            for (int i = 0; i < n; i += len) {
+                double curRe = 1.0, curIm = 0.0;
+                for (int k = 0; k < len / 2; k++) {
+                    int a = i + k, b = i + k + len / 2;
+                    double tRe = re[b] * curRe - im[b] * curIm;
+                    double tIm = re[b] * curIm + im[b] * curRe;
+                    re[b] = re[a] - tRe;
+                    im[b] = im[a] - tIm;
+                    re[a] += tRe;
+                    im[a] += tIm;
+                    double nextRe = curRe * wRe - curIm * wIm;
+                    curIm = curRe * wIm + curIm * wRe;
+                    curRe = nextRe;
+                }
+            }
+        }
+        if (inverse) {
+            for (int i = 0; i < n; i++) {
+                re[i] /= n;
+                im[i] /= n;
+            }
+        }
+    }
+
+    /**
+     * Incremental Welch's Power Spectral Density estimator. Samples are given one at a time (or
+     * in blocks) and only one segment is kept in memory.
+     */
+    public static final class Welch {
+
+        private final double[] _buffer;
+        private int _count = 0;
+        private final double _fs;
+        private final double[] _im;
+        private final double[] _psd;
+        private final double[] _re;
+        private int _segments = 0;
+        private final int _step;
+        private final double _windowPower;
+        private final double[] _window;
+
+        /**
+         * Main constructor for this class.
+         *
+         * @param segment given segment length, in samples. A power of 2 is faster.
+         * @param overlap given overlap between segments, from 0 to 1. E.g.: 0.5.
+         * @param fs      given sampling frequency, in Hz.
+         */
+        public Welch(int segment, double overlap, double fs) {
+            _buffer = new double[segment];
+            _re = new double[segment];
+            _im = new double[segment];
+            _psd = new double[segment / 2 + 1];
+            _window = new double[segment];
+            _fs = fs;
+            _step = Math.max(1, (int) Math.round(segment * (1.0 - overlap)));
+            double sum = 0.0;
+            for (int i = 0; i < segment; i++) {
+                _window[i] = 0.5 * (1.0 - Math.cos(2.0 * Math.PI * i / segment));
+                sum += _window[i] * _window[i];
+            }
+            _windowPower = sum;
+        }
+
+        /**
+         * Adds one sample.
+         *
+         * @param sample given sample.
+         */
+        public void add(double sample) {
+            _buffer[_count++] = sample;
+            if (_count == _buffer.length) {
+                _processSegment();
+                int keep = _buffer.length - _step;
+                System.arraycopy(_buffer, _step, _buffer, 0, keep);
+                _count = keep;
+            }
+        }
+
+        /**
+         * Adds many samples.
+         *
+         * @param samples given samples.
+         */
+        public void add(double[] samples) {
+            for (double sample : samples) {
+                add(sample);
+            }
+        }
+
+        /**
+         * Gets the frequency resolution.
+         *
+         * @return The frequency resolution, in Hz.
+         */
+        public double getFrequencyResolution() {
+            return _fs / _buffer.length;
+        }
+
+        /**
+         * Gets the number of segments averaged so far.
+         *
+         * @return The number of segments.
+         */
+        public int getSegments() {
+            return _segments;
+        }
+
+        /**
+         * Gets the averaged one-sided Power Spectral Density so far.
+         *
+         * @return An array with the PSD, in [unit^2/Hz]. See {@link GetSpectra#frequencies}.
+         */
+        public double[] psd() {
+            double[] psd = new double[_psd.length];
+            if (_segments == 0) {
+                return psd;
+            }
+            for (int k = 0; k < psd.length; k++) {
+                psd[k] = _psd[k] / _segments;
+            }
+            return psd;
+        }
+
+        private void _processSegment() {
+            int n = _buffer.length;
+            double mean = 0.0;
+            for (int i = 0; i < n; i++) {
+                mean += _buffer[i];
+            }
+            mean /= n;
+            for (int i = 0; i < n; i++) {
+                _re[i] = (_buffer[i] - mean) * _window[i];
+                _im[i] = 0.0;
+            }
+            fft(_re, _im);
+            double scale = 1.0 / (_fs * _windowPower);
+            for (int k = 0; k < _psd.length; k++) {
+                double p = scale * (_re[k] * _re[k] + _im[k] * _im[k]);
+                boolean edge = k == 0 || (n % 2 == 0 && k == n / 2);
+                _psd[k] += edge ? p : 2.0 * p;
+            }
+            _segments++;
+        }
+
+    }
+
+}
@@ -86,6 +86,11 @@ public class MainGetter {
      */
     public GetSolver solver = null;
 
+    /**
+     * This class is responsible for getting spectra from signals, such as Monitor histories.
+     */
+    public GetSpectra spectra = null;
+
     /**
      * This class is responsible for getting STAR-CCM+ strings in general.
      */
@@ -123,6 +128,7 @@ public class MainGetter {
         reports = new GetReports(m);
         scenes = new GetScenes(m);
         solver = new GetSolver(m);
+        spectra = new GetSpectra(m);
         strings = new GetStrings(m);
         units = new GetUnits(m);
         m.io.say.msgDebug("Class loaded: %s...", this.getClass().getSimpleName());
@@ -156,6 +162,7 @@ public class MainGetter {
         reports.updateInstances();
         scenes.updateInstances();
         solver.updateInstances();
+        spectra.updateInstances();
         strings.updateInstances();
         units.updateInstances();
         _io = _mu.io;
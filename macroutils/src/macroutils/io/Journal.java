@@ -0,0 +1,256 @@
+package macroutils.io;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.function.BooleanSupplier;
+import macroutils.MacroUtils;
+import star.common.Simulation;
+
+/**
+ * Low-level class for a resumable workflow journal with MacroUtils.
+ *
+ * A workflow is split in named stages. Every completed stage is saved through
+ * {@link MacroUtils#saveSim(String)} and recorded, together with the Simulation file it produced,
+ * in a journal file next to the Simulation file. When the macro is started again:
+ * <ul>
+ * <li>The latest checkpoint is loaded, if the active Simulation is not already that one. The
+ * Simulation it replaces is killed;
+ * <li>Stages already completed are skipped, unless their optional idempotency check fails on the
+ * loaded Simulation. In that case the checkpoint of the stage before it is loaded and the stage
+ * and all the ones after it are run again.
+ * </ul>
+ *
+ * The journal is keyed on the name of the Simulation the workflow started from, so starting the
+ * macro again on any of its checkpoints finds the same journal.
+ *
+ * @since October of 2026
+ * @author Fabio Kasper
+ */
+public class Journal {
+
+    private static final String _SEP = "\t";
+
+    private String _base = null;
+    private final ArrayList<String[]> _entries = new ArrayList<>();
+    private File _file = null;
+    private MainIO _io = null;
+    private MacroUtils _mu = null;
+    private boolean _resumed = false;
+
+    /**
+     * Main constructor for this class.
+     *
+     * @param m given MacroUtils object.
+     */
+    public Journal(MacroUtils m) {
+        _mu = m;
+    }
+
+    /**
+     * Forgets all completed stages, i.e., the next run starts from scratch.
+     */
+    public void clear() {
+        _open();
+        _entries.clear();
+        _rewrite();
+        _io.say.value("Journal cleared", _file.toString(), true, true);
+    }
+
+    /**
+     * Gets the journal file. It is named after the {@link macroutils.UserDeclarations#simTitle}
+     * found when the journal is first used or, if the active Simulation is a checkpoint recorded
+     * in an existing journal, after the Simulation that journal started from.
+     *
+     * @return The File.
+     */
+    public File getFile() {
+        _open();
+        return _file;
+    }
+
+    /**
+     * Was a stage completed in a previous run?
+     *
+     * @param stage given stage name.
+     * @return True or False.
+     */
+    public boolean isCompleted(String stage) {
+        _open();
+        return _indexOf(stage) >= 0;
+    }
+
+    /**
+     * Gets the Simulation file saved by the latest completed stage.
+     *
+     * @return The File. Null if nothing was completed yet.
+     */
+    public File latestCheckpoint() {
+        _open();
+        return _entries.isEmpty() ? null : new File(_entries.get(_entries.size() - 1)[1]);
+    }
+
+    /**
+     * Runs a stage of the workflow, unless it was already completed. See {@link Journal}.
+     *
+     * @param stage given stage name. It must be unique in the workflow.
+     * @param task  given task to be run.
+     * @param check given idempotency check, evaluated on the loaded Simulation, to confirm a
+     *              completed stage is really there. E.g.: {@code () -> mu.check.has.volumeMesh()}.
+     *              Null to trust the journal.
+     */
+    public void run(String stage, Runnable task, BooleanSupplier check) {
+        _open();
+        _resume();
+        int index = _indexOf(stage);
+        if (index >= 0) {
+            if (check == null || check.getAsBoolean()) {
+                _io.say.action(String.format("Skipping completed stage: \"%s\"", stage), true);
+                _io.say.value("Checkpoint", _entries.get(index)[1], true, true);
+                return;
+            }
+            _io.say.msg(true, "Stage \"%s\" failed its check. Running it again...", stage);
+            _entries.subList(index, _entries.size()).clear();
+            _rewrite();
+            File cp = latestCheckpoint();
+            if (cp == null) {
+                _io.say.msg("No earlier checkpoint. Using the active Simulation.");
+            } else if (!_isActive(cp)) {
+                _load(cp);
+            }
+        }
+        _io.say.action(String.format("Running stage: \"%s\"", stage), true);
+        task.run();
+        _mu.saveSim(String.format("%s_%s", _base, stage));
+        String sf = _mu.getSimulation().getSessionPath();
+        _entries.add(new String[]{ stage, sf, String.valueOf(System.currentTimeMillis()) });
+        _append(_entries.get(_entries.size() - 1));
+        _io.say.value("Stage completed", stage, true, true);
+    }
+
+    /**
+     * This method is called automatically by {@link MainIO}. It is internal to MacroUtils.
+     */
+    public void updateInstances() {
+        _io = _mu.io;
+    }
+
+    private void _append(String[] entry) {
+        try (FileOutputStream fos = new FileOutputStream(_file, true);
+                OutputStreamWriter osw = new OutputStreamWriter(fos, StandardCharsets.UTF_8)) {
+            osw.write(String.join(_SEP, entry) + System.lineSeparator());
+            osw.flush();
+            fos.getFD().sync();
+        } catch (IOException ex) {
+            _io.say.msg(true, "Could not write journal file: %s", ex.getMessage());
+        }
+    }
+
+    private boolean _isActive(File cp) {
+        return cp.equals(new File(_mu.getSimulation().getSessionPath()));
+    }
+
+    private int _indexOf(String stage) {
+        for (int i = 0; i < _entries.size(); i++) {
+            if (_entries.get(i)[0].equals(stage)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void _load(File cp) {
+        _io.say.value("Loading checkpoint", cp.toString(), true, true);
+        Simulation old = _mu.getSimulation();
+        _mu.setSimulation(new Simulation(cp.toString()), _mu.getIntrusiveOption());
+        _mu.killSimulation(old);
+    }
+
+    private void _open() {
+        if (_file != null) {
+            return;
+        }
+        //-- Checkpoints are named <base>_<stage>. Look for the journal that recorded this one.
+        String title = _mu.get.strings.friendlyFilename(_mu.userDeclarations.simTitle);
+        File active = new File(_mu.getSimulation().getSessionPath());
+        _base = title;
+        for (int i = title.length(); i > 0; i = title.lastIndexOf('_', i - 1)) {
+            File f = new File(_mu.userDeclarations.simPath, title.substring(0, i) + ".journal");
+            if (_read(f).stream().anyMatch(e -> new File(e[1]).equals(active))) {
+                _base = title.substring(0, i);
+                break;
+            }
+        }
+        _file = new File(_mu.userDeclarations.simPath, _base + ".journal");
+        _entries.addAll(_read(_file));
+    }
+
+    private ArrayList<String[]> _read(File f) {
+        ArrayList<String[]> entries = new ArrayList<>();
+        if (!f.isFile()) {
+            return entries;
+        }
+        try (BufferedReader br = new BufferedReader(new FileReader(f, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] entry = line.split(_SEP);
+                if (entry.length == 3 && new File(entry[1]).isFile()) {
+                    entries.add(entry);
+                }
+            }
+        } catch (IOException ex) {
+            _io.say.msg(true, "Could not read journal file: %s", ex.getMessage());
+        }
+        return entries;
+    }
+
+    private void _resume() {
+        if (_resumed) {
+            return;
+        }
+        _resumed = true;
+        File cp = latestCheckpoint();
+        if (cp == null) {
+            return;
+        }
+        _io.say.action("Resuming workflow from journal", true);
+        _io.say.value("Journal", _file.toString(), true, true);
+        _io.say.value("Completed stages", _entries.size(), true);
+        if (_isActive(cp)) {
+            _io.say.msg("Latest checkpoint is already the active Simulation.");
+            return;
+        }
+        _load(cp);
+        _io.say.ok(true);
+    }
+
+    /**
+     * Entries are written to a temporary file first, so a crash never leaves a partial journal.
+     */
+    private void _rewrite() {
+        File tmp = new File(_file.getParentFile(), _file.getName() + ".tmp");
+        try {
+            try (FileOutputStream fos = new FileOutputStream(tmp);
+                    OutputStreamWriter osw = new OutputStreamWriter(fos, StandardCharsets.UTF_8)) {
+                for (String[] entry : _entries) {
+                    osw.write(String.join(_SEP, entry) + System.lineSeparator());
+                }
+                osw.flush();
+                fos.getFD().sync();
+            }
+            Files.move(tmp.toPath(), _file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            _io.say.msg(true, "Could not rewrite journal file: %s", ex.getMessage());
+            tmp.delete();
+        }
+    }
+
+}
@@ -12,6 +12,10 @@ import macroutils.UserDeclarations;
  */
 public class MainIO {
 
+    /**
+     * This class is responsible for the resumable workflow journal. See {@link MacroUtils#stage}.
+     */
+    public Journal journal = null;
     /**
      * This class is responsible for printing information into STAR-CCM+ console/output.
      */
@@ -24,6 +28,10 @@ public class MainIO {
      * Useful for printing information into console/output. It is the same as {@link #print}.
      */
     public Print say = null;
+    /**
+     * This class is responsible for recording solver throughput telemetry with MacroUtils.
+     */
+    public Telemetry telemetry = null;
     /**
      * This class is responsible for writing data in general with MacroUtils.
      */
@@ -40,8 +48,10 @@ public class MainIO {
      */
     public MainIO(MacroUtils m, boolean debugOpt) {
         _mu = m;
+        journal = new Journal(m);
         print = new Print(m);
         read = new Read(m);
+        telemetry = new Telemetry(m);
         write = new Write(m);
         say = print;
         print.setDebug(debugOpt);
@@ -87,8 +97,10 @@ public class MainIO {
      * This method is called automatically by {@link MacroUtils}. It is internal to MacroUtils.
      */
     public void updateInstances() {
+        journal.updateInstances();
         print.updateInstances();
         read.updateInstances();
+        telemetry.updateInstances();
         write.updateInstances();
         _ud = _mu.userDeclarations;
         print.msgDebug("" + this.getClass().getSimpleName() + " instances updated succesfully.");
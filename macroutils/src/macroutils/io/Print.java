@@ -341,6 +341,7 @@ public class Print {
     public void updateInstances() {
         _chk = _mu.check;
         _get = _mu.get;
+        _sim = _mu.getSimulation();
     }
 
     /**
@@ -4,6 +4,13 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import macroutils.MacroUtils;
 import macroutils.StaticDeclarations;
 import macroutils.UserDeclarations;
@@ -142,6 +149,79 @@ public class Read {
         return contents.toString();
     }
 
+    /**
+     * Reads a binary columnar file written by {@link Write#fieldData}.
+     *
+     * @param f  given binary File.
+     * @param vo given verbose option. False will not print anything.
+     * @return A LinkedHashMap with the column names, e.g., "X" or "Pressure", and their values, in
+     *         the units written in the file. See {@link #fieldData(File, Map, boolean)}. Null if an
+     *         error is caught.
+     */
+    public LinkedHashMap<String, double[]> fieldData(File f, boolean vo) {
+        return fieldData(f, new LinkedHashMap<>(), vo);
+    }
+
+    /**
+     * Reads a binary columnar file written by {@link Write#fieldData}, along with the units of
+     * every column.
+     *
+     * @param f     given binary File.
+     * @param units given Map to be filled with the column names and their unit names, e.g., "m".
+     *              An empty unit name means the column has none.
+     * @param vo    given verbose option. False will not print anything.
+     * @return A LinkedHashMap with the column names, e.g., "X" or "Pressure", and their values, in
+     *         the units written in the file. Null if an error is caught.
+     */
+    public LinkedHashMap<String, double[]> fieldData(File f, Map<String, String> units,
+            boolean vo) {
+        _io.say.action("Reading Field Data", vo);
+        _io.say.value("File", f.toString(), true, vo);
+        LinkedHashMap<String, double[]> data = new LinkedHashMap<>();
+        try (FileChannel fc = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer bb = fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (bb.getInt() != Write.FIELD_DATA_MAGIC) {
+                _io.say.msg(vo, "Not a Field Data file.");
+                return null;
+            }
+            bb.getInt();
+            int nCols = bb.getInt();
+            String[] names = new String[nCols];
+            for (int i = 0; i < nCols; i++) {
+                names[i] = _string(bb);
+                units.put(names[i], _string(bb));
+            }
+            int total = 0;
+            int start = bb.position();
+            while (bb.remaining() >= Integer.BYTES) {
+                int rows = bb.getInt();
+                total += rows;
+                bb.position(bb.position() + Double.BYTES * nCols * rows);
+            }
+            double[][] columns = new double[nCols][total];
+            bb.position(start);
+            int offset = 0;
+            while (bb.remaining() >= Integer.BYTES) {
+                int rows = bb.getInt();
+                for (double[] column : columns) {
+                    bb.asDoubleBuffer().get(column, offset, rows);
+                    bb.position(bb.position() + Double.BYTES * rows);
+                }
+                offset += rows;
+            }
+            for (int i = 0; i < nCols; i++) {
+                data.put(names[i], columns[i]);
+            }
+            _io.say.value("Rows read", total, vo);
+        } catch (IOException | RuntimeException ex) {
+            _io.say.msg(true, "Could not read field data: %s", ex.getMessage());
+            return null;
+        }
+        _io.say.ok(vo);
+        return data;
+    }
+
     /**
      * This method is called automatically by {@link MainIO} class. It is internal to MacroUtils.
      */
@@ -149,6 +229,13 @@ public class Read {
         _get = _mu.get;
         _io = _mu.io;
         _ud = _mu.userDeclarations;
+        _sim = _mu.getSimulation();
+    }
+
+    private String _string(ByteBuffer bb) {
+        byte[] bytes = new byte[bb.getInt()];
+        bb.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
     }
 
 }
@@ -0,0 +1,198 @@
+package macroutils.io;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import macroutils.MacroUtils;
+import star.common.Simulation;
+
+/**
+ * Low-level class for recording solver throughput telemetry with MacroUtils.
+ *
+ * When enabled, {@link MacroUtils#step} and {@link MacroUtils#run} advance the solver in chunks
+ * and record, per chunk:
+ * <ul>
+ * <li>Wall time per iteration and cell-iterations per second;
+ * <li>Cell count and client JVM heap in use;
+ * <li>Spikes, i.e., chunks much slower than the running median, which are typically caused by
+ * outputs such as hardcopies, exports or auto save.
+ * </ul>
+ *
+ * Chunks never go past the Maximum Steps and every enabled stopping criteria is evaluated after
+ * each chunk, so a run stops at the same point with or without telemetry. See
+ * {@link macroutils.checker.CheckIs#stoppingCriteriaSatisfied}.
+ *
+ * Samples are appended to a CSV file next to the Simulation file and percentiles are printed at
+ * the end of the run.
+ *
+ * @since October of 2026
+ * @author Fabio Kasper
+ */
+public class Telemetry {
+
+    /**
+     * A chunk slower than this factor times the running median is flagged as a spike.
+     */
+    public static final double SPIKE_FACTOR = 2.0;
+
+    private static final String _HEADER = "Iteration,Physical Time,Chunk Iterations,Wall Time,"
+            + "Seconds per Iteration,Cells,Cell Iterations per Second,Heap Used (MB),Spike";
+
+    private macroutils.getter.MainGetter _get = null;
+    private MainIO _io = null;
+    private MacroUtils _mu = null;
+    private int _sampleEvery = 0;
+    private int _spikes = 0;
+    private final ArrayList<Double> _secondsPerIteration = new ArrayList<>();
+    private final ArrayList<Double> _sorted = new ArrayList<>();
+    private macroutils.UserDeclarations _ud = null;
+
+    /**
+     * Main constructor for this class.
+     *
+     * @param m given MacroUtils object.
+     */
+    public Telemetry(MacroUtils m) {
+        _mu = m;
+    }
+
+    /**
+     * Disables the telemetry. Runs go back to a single solver call.
+     */
+    public void disable() {
+        _sampleEvery = 0;
+    }
+
+    /**
+     * Enables the telemetry on {@link MacroUtils#step} and {@link MacroUtils#run}.
+     *
+     * @param sampleEvery given sampling frequency, in iterations or timesteps. Smaller values give
+     *                    finer data at the cost of more solver calls.
+     */
+    public void enable(int sampleEvery) {
+        _sampleEvery = Math.max(1, sampleEvery);
+    }
+
+    /**
+     * Gets the telemetry file for the current Simulation.
+     *
+     * @return The File.
+     */
+    public File getFile() {
+        return new File(_ud.simPath, _ud.simTitle + "_telemetry.csv");
+    }
+
+    /**
+     * Is the telemetry enabled?
+     *
+     * @return True or False.
+     */
+    public boolean isEnabled() {
+        return _sampleEvery > 0;
+    }
+
+    /**
+     * Runs the Simulation while recording telemetry. This method is called automatically by
+     * {@link MacroUtils} when telemetry is enabled.
+     *
+     * @param n given iterations or timesteps. Zero or less runs until any enabled stopping
+     *          criteria is satisfied.
+     */
+    public void run(int n) {
+        Simulation sim = _mu.getSimulation();
+        File f = getFile();
+        _io.say.value("Recording Solver Telemetry to", f.toString(), true, true);
+        _secondsPerIteration.clear();
+        _sorted.clear();
+        _spikes = 0;
+        boolean isNew = !f.isFile();
+        long cells = _get.mesh.fvr().getCellCount();
+        long runStart = System.nanoTime();
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(f, true))) {
+            if (isNew) {
+                bw.write(_HEADER);
+                bw.newLine();
+            }
+            int remaining = (n > 0) ? n : Integer.MAX_VALUE;
+            while (remaining > 0 && !(n <= 0 && _mu.check.is.stoppingCriteriaSatisfied())) {
+                int chunk = Math.min(_sampleEvery, remaining);
+                if (n <= 0) {
+                    chunk = Math.min(chunk, Math.max(1, _get.solver.stepsLeft()));
+                }
+                int iter0 = _get.solver.iteration();
+                long t0 = System.nanoTime();
+                sim.getSimulationIterator().step(chunk);
+                double wall = (System.nanoTime() - t0) / 1e9;
+                int steps = _get.solver.iteration() - iter0;
+                if (steps <= 0) {
+                    break;
+                }
+                remaining -= chunk;
+                bw.write(_sample(steps, wall, cells));
+                bw.newLine();
+                bw.flush();
+            }
+        } catch (IOException ex) {
+            _io.say.msg(true, "Could not write telemetry file: %s", ex.getMessage());
+        }
+        _summary((System.nanoTime() - runStart) / 1e9, cells);
+    }
+
+    /**
+     * This method is called automatically by {@link MainIO}. It is internal to MacroUtils.
+     */
+    public void updateInstances() {
+        _get = _mu.get;
+        _io = _mu.io;
+        _ud = _mu.userDeclarations;
+    }
+
+    private double _median() {
+        int size = _sorted.size();
+        if (size == 0) {
+            return Double.NaN;
+        }
+        return _sorted.get(size / 2);
+    }
+
+    private double _percentile(double p) {
+        int index = (int) Math.ceil(p / 100.0 * _sorted.size()) - 1;
+        return _sorted.get(Math.max(0, Math.min(index, _sorted.size() - 1)));
+    }
+
+    private String _sample(int steps, double wall, long cells) {
+        double spi = wall / steps;
+        boolean isSpike = spi > SPIKE_FACTOR * _median();
+        _spikes += isSpike ? 1 : 0;
+        _secondsPerIteration.add(spi);
+        int pos = Collections.binarySearch(_sorted, spi);
+        _sorted.add(pos < 0 ? -pos - 1 : pos, spi);
+        Runtime rt = Runtime.getRuntime();
+        double heap = (rt.totalMemory() - rt.freeMemory()) / 1048576.0;
+        return String.format("%d,%.9e,%d,%.6f,%.6e,%d,%.6e,%.1f,%d", _get.solver.iteration(),
+                _get.solver.physicalTime(), steps, wall, spi, cells, cells / spi, heap,
+                isSpike ? 1 : 0);
+    }
+
+    private void _summary(double total, long cells) {
+        _io.say.action("Solver Telemetry Summary", true);
+        int samples = _secondsPerIteration.size();
+        _io.say.value("Samples", samples, true);
+        _io.say.value("Total Wall Time (s)", total, true);
+        if (samples == 0) {
+            return;
+        }
+        double median = _percentile(50);
+        _io.say.value("Seconds per Iteration (P50)", median, true);
+        _io.say.value("Seconds per Iteration (P90)", _percentile(90), true);
+        _io.say.value("Seconds per Iteration (P99)", _percentile(99), true);
+        _io.say.value("Seconds per Iteration (Max)", _percentile(100), true);
+        _io.say.value("Cell Iterations per Second (P50)", cells / median, true);
+        _io.say.msg(true, "Spikes above %.1fx the running median: %d.", SPIKE_FACTOR, _spikes);
+        _io.say.ok(true);
+    }
+
+}
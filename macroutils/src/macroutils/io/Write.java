@@ -1,17 +1,30 @@
 package macroutils.io;
 
+import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import macroutils.MacroUtils;
 import macroutils.StaticDeclarations;
 import macroutils.UserDeclarations;
 import star.base.neo.DoubleVector;
 import star.base.neo.NamedObject;
+import star.common.FieldFunction;
+import star.common.Part;
 import star.common.Simulation;
 import star.common.StarPlot;
+import star.common.XyzInternalTable;
 import star.vis.Scene;
 import star.vis.VisView;
 
@@ -23,6 +36,16 @@ import star.vis.VisView;
  */
 public class Write {
 
+    /**
+     * File signature used by the binary field data files. See {@link #fieldData}.
+     */
+    public static final int FIELD_DATA_MAGIC = 0x4D554644;
+
+    /**
+     * Number of rows per chunk in the binary field data files. See {@link #fieldData}.
+     */
+    public static final int FIELD_DATA_CHUNK_ROWS = 65536;
+
     private macroutils.getter.MainGetter _get = null;
     private macroutils.io.MainIO _io = null;
     private MacroUtils _mu = null;
@@ -128,6 +151,65 @@ public class Write {
         _io.say.ok(vo);
     }
 
+    /**
+     * Writes coordinates and Field Function values from a Derived Part, e.g., a Plane Section,
+     * Line, Point, Iso-surface or Threshold, into a binary columnar file in the
+     * {@link UserDeclarations#simPath} folder.
+     *
+     * The file is written as follows, in little-endian order:
+     * <ul>
+     * <li>Header: <i>[signature][version][columns]</i> and, for every column, its name and its
+     * units as length-prefixed UTF-8 strings;</li>
+     * <li>Chunks of up to {@link #FIELD_DATA_CHUNK_ROWS} rows: <i>[rows][column 1 values][column 2
+     * values]...</i> as doubles.</li>
+     * </ul>
+     * Vector Field Functions are written as one column per component.
+     *
+     * The values are extracted by an XYZ Internal Table and go through its CSV export, a temporary
+     * file removed afterwards, which is then streamed into the binary file in chunks. A partial
+     * binary file is deleted if anything fails.
+     *
+     * @param p   given Derived Part.
+     * @param aff given ArrayList of Field Functions.
+     * @param vo  given verbose option. False will not print anything.
+     * @return The binary File. Null if an error is caught.
+     */
+    public File fieldData(Part p, ArrayList<FieldFunction> aff, boolean vo) {
+        _io.say.action("Writing Field Data", vo);
+        _io.say.object(p, vo);
+        _io.say.objects(aff, "Field Functions", vo);
+        String name = _get.strings.friendlyFilename(p.getPresentationName());
+        File csv = new File(_ud.simPath, name + ".tmp.csv");
+        File bin = new File(_ud.simPath, name + ".bin");
+        XyzInternalTable t = _sim.getTableManager().createTable(XyzInternalTable.class);
+        t.setPresentationName("_tmpFieldData");
+        t.setFieldFunctions(aff);
+        t.getParts().setObjects(p);
+        try {
+            t.extract();
+            t.export(csv.toString(), ",");
+        } catch (RuntimeException ex) {
+            _io.say.msg(true, "Could not extract field data: %s", ex.getMessage());
+            csv.delete();
+            return null;
+        } finally {
+            _sim.getTableManager().remove(t);
+        }
+        try {
+            int rows = _writeFieldData(csv, bin);
+            _io.say.value("Rows written", rows, vo);
+            _io.say.value("File", bin.getAbsolutePath(), true, vo);
+        } catch (IOException | RuntimeException ex) {
+            _io.say.msg(true, "Could not write field data: %s", ex.getMessage());
+            bin.delete();
+            bin = null;
+        } finally {
+            csv.delete();
+        }
+        _io.say.ok(vo);
+        return bin;
+    }
+
     /**
      * Writes a 1280x720 picture from a Scene or a Plot to the default picture path.
      *
@@ -180,6 +262,7 @@ public class Write {
         _get = _mu.get;
         _io = _mu.io;
         _ud = _mu.userDeclarations;
+        _sim = _mu.getSimulation();
     }
 
     private String _getNewName(String s) {
@@ -190,6 +273,31 @@ public class Write {
                 .replace("#", "");
     }
 
+    /**
+     * Splits a CSV line, honoring quoted fields.
+     */
+    private ArrayList<String> _splitCSV(String line) {
+        ArrayList<String> fields = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"' && quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                sb.append(c);
+                i++;
+            } else if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                fields.add(sb.toString());
+                sb.setLength(0);
+            } else {
+                sb.append(c);
+            }
+        }
+        fields.add(sb.toString());
+        return fields;
+    }
+
     private boolean _tryWritePic(NamedObject no, String name, int resx, int resy, boolean vo) {
         if (name == null) {
             name = no.getPresentationName();
@@ -216,6 +324,88 @@ public class Write {
         return false;
     }
 
+    private void _writeChunk(FileChannel fc, ByteBuffer bb, double[][] columns, int rows)
+            throws IOException {
+        bb.clear();
+        bb.putInt(rows);
+        for (double[] column : columns) {
+            DoubleBuffer db = bb.asDoubleBuffer();
+            db.put(column, 0, rows);
+            bb.position(bb.position() + Double.BYTES * rows);
+        }
+        bb.flip();
+        while (bb.hasRemaining()) {
+            fc.write(bb);
+        }
+    }
+
+    private int _writeFieldData(File csv, File bin) throws IOException {
+        Pattern unitPatt = Pattern.compile("^(.*?)\\s*\\((.*)\\)$");
+        try (BufferedReader br = new BufferedReader(new FileReader(csv));
+                FileChannel fc = FileChannel.open(bin.toPath(), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            String first = br.readLine();
+            if (first == null) {
+                throw new IOException("Empty table export.");
+            }
+            ArrayList<String> header = _splitCSV(first);
+            int nCols = header.size();
+            ArrayList<byte[]> strings = new ArrayList<>();
+            int size = 3 * Integer.BYTES;
+            for (String col : header) {
+                String colName = col.trim();
+                String colUnit = StaticDeclarations.UNIT_DIMENSIONLESS;
+                Matcher m = unitPatt.matcher(colName);
+                if (m.matches()) {
+                    colName = m.group(1);
+                    colUnit = m.group(2);
+                }
+                for (String str : new String[]{ colName, colUnit }) {
+                    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+                    strings.add(bytes);
+                    size += Integer.BYTES + bytes.length;
+                }
+            }
+            ByteBuffer hb = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+            hb.putInt(FIELD_DATA_MAGIC).putInt(1).putInt(nCols);
+            strings.forEach(bytes -> hb.putInt(bytes.length).put(bytes));
+            hb.flip();
+            while (hb.hasRemaining()) {
+                fc.write(hb);
+            }
+            int chunkRows = FIELD_DATA_CHUNK_ROWS;
+            ByteBuffer bb = ByteBuffer.allocateDirect(Integer.BYTES
+                    + Double.BYTES * nCols * chunkRows).order(ByteOrder.LITTLE_ENDIAN);
+            double[][] columns = new double[nCols][chunkRows];
+            int rows = 0;
+            int total = 0;
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                ArrayList<String> values = _splitCSV(line);
+                if (values.size() != nCols) {
+                    throw new IOException(String.format("Expected %d values in row %d, got %d.",
+                            nCols, total + 1, values.size()));
+                }
+                for (int i = 0; i < nCols; i++) {
+                    columns[i][rows] = Double.parseDouble(values.get(i).trim());
+                }
+                rows++;
+                total++;
+                if (rows == chunkRows) {
+                    _writeChunk(fc, bb, columns, rows);
+                    rows = 0;
+                }
+            }
+            if (rows > 0) {
+                _writeChunk(fc, bb, columns, rows);
+            }
+            return total;
+        }
+    }
+
     private void _writeObjects(String what, String prefix, ArrayList<NamedObject> ano) {
         _io.say.action(String.format("Writing %s", what), true);
         _io.say.objects(ano, "Objects", true);
@@ -97,6 +97,9 @@ public class MainSetter {
     /**
      * Set the Auto Save functionality based on an Update Event.
      *
+     * For saving based on wall clock time and measured save cost, see
+     * {@link macroutils.templates.simtools.CheckpointPolicy}.
+     *
      * @param ue            given Update Event.
      * @param maxSavedFiles given number of Simulation files to keep.
      */
@@ -61,6 +61,7 @@ public class SetGeometry {
         } else if (gp instanceof LeafMeshPart) {
             ((LeafMeshPart) gp).combinePartSurfaces(aps);
         }
+        _get.partSurfaces.updateIndex(aps);
         PartSurface ps = aps.get(0);
         _io.say.value("Combined into Part Surface", ps.getPresentationName(), true, vo);
         _io.say.ok(vo);
@@ -92,6 +93,7 @@ public class SetGeometry {
         for (PartSurface ps : inputs) {
             _get.partSurfaces.manager(ps).splitPartSurfacesByAngle(inputs, angle);
         }
+        _get.partSurfaces.updateIndex(inputs);
         _io.say.ok(vo);
     }
 
@@ -127,6 +129,7 @@ public class SetGeometry {
         for (PartSurface ps : inputsPS) {
             _get.partSurfaces.manager(ps).splitPartSurfacesByPartCurves(inputsPS, inputsPC);
         }
+        _get.partSurfaces.updateIndex(inputsPS);
         _io.say.ok(vo);
     }
 
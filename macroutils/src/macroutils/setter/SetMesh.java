@@ -1,25 +1,39 @@
 package macroutils.setter;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import macroutils.MacroUtils;
 import star.base.neo.ClientServerObject;
 import star.base.neo.NamedObject;
 import star.common.ConditionManager;
+import star.common.GeometryObject;
 import star.common.Units;
+import star.dualmesher.VolumeControlDualMesherSizeOption;
 import star.meshing.AutoMeshBase;
 import star.meshing.AutoMeshDefaultValuesManager;
 import star.meshing.AutoMeshOperation;
 import star.meshing.BaseSize;
 import star.meshing.CustomMeshControl;
 import star.meshing.CustomMeshControlConditionManager;
+import star.meshing.CustomMeshControlManager;
+import star.meshing.CustomMeshControlValueManager;
 import star.meshing.MaximumCellSize;
 import star.meshing.PartsCoreMeshOptimizer;
 import star.meshing.PartsMinimumSurfaceSize;
 import star.meshing.PartsMinimumSurfaceSizeOption;
+import star.meshing.PartsRelativeOrAbsoluteSize;
 import star.meshing.PartsTargetSurfaceSize;
 import star.meshing.PartsTargetSurfaceSizeOption;
+import star.meshing.RelativeOrAbsoluteOption;
+import star.meshing.RelativeOrAbsoluteSize;
 import star.meshing.SurfaceCurvature;
 import star.meshing.SurfaceCustomMeshControl;
 import star.meshing.SurfaceProximity;
+import star.meshing.VolumeControlSize;
 import star.meshing.VolumeCustomMeshControl;
 import star.prismmesher.CustomPrismValuesManager;
 import star.prismmesher.NumPrismLayers;
@@ -38,6 +52,9 @@ import star.solidmesher.ThinNumLayers;
 import star.solidmesher.ThinThicknessThreshold;
 import star.sweptmesher.DirectedAutoSourceMesh;
 import star.sweptmesher.DirectedMeshOperation;
+import star.trimmer.PartsTrimmerWakeRefinementOption;
+import star.trimmer.TrimmerAnisotropicSize;
+import star.trimmer.VolumeControlTrimmerSizeOption;
 
 /**
  * Low-level class for setting Mesh parameters with MacroUtils.
@@ -86,6 +103,70 @@ public class SetMesh {
         _io.say.msg("Mesh Operation does not have a Base Size.");
     }
 
+    /**
+     * Consolidates the Custom Controls in an Automated Mesh Operation. Surface or Volume Controls
+     * carrying identical settings are merged into the last one of them, which will hold the union
+     * of their Geometry Objects. The others are removed.
+     *
+     * Where Controls share Geometry Objects, the later one in the list wins. Hence, a Control is
+     * only merged if no other Control between it and the last one shares Geometry Objects with it,
+     * so the precedence of the remaining Controls is unchanged. Settings are compared exactly,
+     * including
+     * every customize option, relative or absolute sizes, surface curvature, growth rate, prism
+     * layers and isotropic or anisotropic volume sizes. Surface Controls with Trimmer Wake
+     * Refinement and Volume Controls of meshers other than Trimmer or Polyhedral are left
+     * untouched.
+     *
+     * @param amo given Auto Mesh Operation.
+     * @param vo  given verbose option. False will only print necessary data.
+     * @return The number of Custom Controls removed.
+     */
+    public int consolidateCustomControls(AutoMeshOperation amo, boolean vo) {
+        _io.say.action("Consolidating Custom Mesh Controls", vo);
+        _io.say.object(amo, vo);
+        CustomMeshControlManager cmcm = amo.getCustomMeshControls();
+        ArrayList<CustomMeshControl> acmc = new ArrayList<>(cmcm.getObjects());
+        boolean isTrimmer = _chk.has.trimmerMesher(amo);
+        boolean isPoly = _chk.has.polyMesher(amo);
+        LinkedHashMap<String, ArrayList<CustomMeshControl>> groups = new LinkedHashMap<>();
+        for (CustomMeshControl cmc : acmc) {
+            String fp = _fingerprint(cmc, isTrimmer, isPoly);
+            groups.computeIfAbsent(fp == null ? cmc.toString() : fp, k -> new ArrayList<>())
+                    .add(cmc);
+        }
+        ArrayList<CustomMeshControl> removed = new ArrayList<>();
+        for (ArrayList<CustomMeshControl> group : groups.values()) {
+            if (group.size() < 2) {
+                continue;
+            }
+            CustomMeshControl keep = group.get(group.size() - 1);
+            int k = acmc.indexOf(keep);
+            ArrayList<CustomMeshControl> merged = new ArrayList<>();
+            for (CustomMeshControl cmc : group.subList(0, group.size() - 1)) {
+                if (!_overlaps(cmc, acmc.subList(acmc.indexOf(cmc) + 1, k), group)) {
+                    merged.add(cmc);
+                }
+            }
+            if (merged.isEmpty()) {
+                continue;
+            }
+            LinkedHashSet<GeometryObject> ago = new LinkedHashSet<>();
+            merged.forEach(cmc -> ago.addAll(cmc.getGeometryObjects().getObjects()));
+            ago.addAll(keep.getGeometryObjects().getObjects());
+            keep.getGeometryObjects().setObjects(new ArrayList<>(ago));
+            _io.say.msg(vo, "Merged %d Controls into \"%s\".", merged.size() + 1,
+                    keep.getPresentationName());
+            removed.addAll(merged);
+        }
+        if (!removed.isEmpty()) {
+            cmcm.removeObjects(removed);
+        }
+        _io.say.value("Custom Controls before", acmc.size(), vo);
+        _io.say.value("Custom Controls after", acmc.size() - removed.size(), vo);
+        _io.say.ok(vo);
+        return removed.size();
+    }
+
     /**
      * Set the core mesh optimizer parameters.
      *
@@ -377,6 +458,40 @@ public class SetMesh {
         _io.say.ok(vo);
     }
 
+    /**
+     * Specifies the same Surface Mesh Sizes for many Custom Mesh Controls. Nothing is printed
+     * per Custom Mesh Control.
+     *
+     * @param acmc given ArrayList of Custom Mesh Controls.
+     * @param min  minimum relative size (%) must be greater than zero. Otherwise it assumes the
+     *             parent value.
+     * @param tgt  target relative size (%) must be greater than zero. Otherwise it assumes the
+     *             parent value.
+     * @param vo   given verbose option. False will only print the summary.
+     * @return The number of Custom Mesh Controls changed.
+     */
+    public int surfaceSizes(ArrayList<? extends CustomMeshControl> acmc, double min, double tgt,
+            boolean vo) {
+        _io.say.action("Setting Custom Surface Sizes on many Custom Mesh Controls", vo);
+        for (CustomMeshControl cmc : acmc) {
+            CustomMeshControlConditionManager cm = cmc.getCustomConditions();
+            if (min > 0) {
+                cm.get(PartsMinimumSurfaceSizeOption.class)
+                        .setSelected(PartsMinimumSurfaceSizeOption.Type.CUSTOM);
+                cmc.getCustomValues().get(PartsMinimumSurfaceSize.class).setRelativeSize(min);
+            }
+            if (tgt > 0) {
+                cm.get(PartsTargetSurfaceSizeOption.class)
+                        .setSelected(PartsTargetSurfaceSizeOption.Type.CUSTOM);
+                cmc.getCustomValues().get(PartsTargetSurfaceSize.class).setRelativeSize(tgt);
+            }
+        }
+        _io.say.msg(true, "Surface Sizes (min = %g%%; target = %g%%) set on %d Custom Controls.",
+                min, tgt, acmc.size());
+        _io.say.ok(vo);
+        return acmc.size();
+    }
+
     /**
      * Specifies Thin Mesher parameters.
      *
@@ -414,6 +529,86 @@ public class SetMesh {
         _ud = _mu.userDeclarations;
     }
 
+    /**
+     * Gets a String with every setting of a Custom Control, values written in full precision.
+     * Null if it must not be merged, i.e., when the settings can not be told apart exactly.
+     */
+    private String _fingerprint(CustomMeshControl cmc, boolean isTrimmer, boolean isPoly) {
+        CustomMeshControlConditionManager cm = cmc.getCustomConditions();
+        CustomMeshControlValueManager vm = cmc.getCustomValues();
+        StringBuilder sb = new StringBuilder(cmc.getClass().getSimpleName());
+        if (cmc instanceof SurfaceCustomMeshControl) {
+            if (isTrimmer && cm.get(PartsTrimmerWakeRefinementOption.class)
+                    .getPartsWakeRefinementOption()) {
+                return null;
+            }
+            PartsMinimumSurfaceSizeOption.Type min = cm.get(PartsMinimumSurfaceSizeOption.class)
+                    .getSelectedElement();
+            PartsTargetSurfaceSizeOption.Type tgt = cm.get(PartsTargetSurfaceSizeOption.class)
+                    .getSelectedElement();
+            PartsCustomizePrismMesh pcpm = cm.get(PartsCustomizePrismMesh.class);
+            PartsCustomPrismsOption.Type prisms = pcpm.getCustomPrismOptions()
+                    .getSelectedElement();
+            sb.append("|min=").append(min);
+            if (min == PartsMinimumSurfaceSizeOption.Type.CUSTOM) {
+                sb.append(_size(vm.get(PartsMinimumSurfaceSize.class)));
+            }
+            sb.append("|tgt=").append(tgt);
+            if (tgt == PartsTargetSurfaceSizeOption.Type.CUSTOM) {
+                sb.append(_size(vm.get(PartsTargetSurfaceSize.class)));
+            }
+            //-- Compared even when not customized. It may only prevent a merge.
+            if (vm.has("Surface Curvature")) {
+                sb.append("|curv=").append(vm.get(SurfaceCurvature.class)
+                        .getNumPointsAroundCircleQuantity().evaluate());
+            }
+            if (vm.has("Surface Growth Rate")) {
+                SurfaceGrowthRate sgr = vm.get(SurfaceGrowthRate.class);
+                sb.append("|growth=").append(sgr.getGrowthRateOption()).append(":")
+                        .append(sgr.getGrowthRateScalar().getInternalValue());
+            }
+            sb.append("|prisms=").append(prisms);
+            if (prisms == PartsCustomPrismsOption.Type.CUSTOMIZE) {
+                sb.append(_prismValues(vm, pcpm.getCustomPrismControls().getCustomizeNumLayers(),
+                        pcpm.getCustomPrismControls().getCustomizeStretching(),
+                        pcpm.getCustomPrismControls().getCustomizeTotalThickness()));
+            }
+        } else if (cmc instanceof VolumeCustomMeshControl) {
+            if (isTrimmer) {
+                VolumeControlTrimmerSizeOption vctso = cm.get(VolumeControlTrimmerSizeOption.class);
+                boolean iso = vctso.getVolumeControlBaseSizeOption();
+                boolean aniso = vctso.getTrimmerAnisotropicSizeOption();
+                sb.append("|iso=").append(iso);
+                if (iso) {
+                    sb.append(_size(vm.get(VolumeControlSize.class)));
+                }
+                sb.append("|aniso=").append(aniso);
+                if (aniso) {
+                    TrimmerAnisotropicSize tas = vm.get(TrimmerAnisotropicSize.class);
+                    sb.append(_size(tas.getXSize(), tas.getRelativeXSize())).append(",")
+                            .append(_size(tas.getYSize(), tas.getRelativeYSize())).append(",")
+                            .append(_size(tas.getZSize(), tas.getRelativeZSize()));
+                }
+            } else if (isPoly) {
+                boolean iso = cm.get(VolumeControlDualMesherSizeOption.class)
+                        .getVolumeControlBaseSizeOption();
+                sb.append("|iso=").append(iso);
+                if (iso) {
+                    sb.append(_size(vm.get(VolumeControlSize.class)));
+                }
+            } else {
+                return null;
+            }
+            VolumeControlPrismsOption vcpo = cm.get(VolumeControlPrismsOption.class);
+            sb.append("|prisms=").append(_prismValues(vm, vcpo.getCustomizeNumLayers(),
+                    vcpo.getCustomizeStretching(), vcpo.getCustomizeTotalThickness()));
+        } else {
+            return null;
+        }
+        //-- An unknown size is written as null and such Control is not merged.
+        return sb.indexOf("null") < 0 ? sb.toString() : null;
+    }
+
     private DirectedAutoSourceMesh _getDirectedAutoSourceMesh(NamedObject no) {
         DirectedMeshOperation dmo = (DirectedMeshOperation) no;
         for (Object o : dmo.getGuidedSurfaceMeshBaseManager().getObjects()) {
@@ -424,6 +619,72 @@ public class SetMesh {
         return null;
     }
 
+    /**
+     * Does a Control share Geometry Objects with any Control in between, other than the ones with
+     * identical settings?
+     */
+    private boolean _overlaps(CustomMeshControl cmc, List<CustomMeshControl> between,
+            List<CustomMeshControl> group) {
+        Collection<GeometryObject> ago = cmc.getGeometryObjects().getObjects();
+        for (CustomMeshControl other : between) {
+            if (group.contains(other)) {
+                continue;
+            }
+            if (!Collections.disjoint(ago, other.getGeometryObjects().getObjects())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String _prismValues(CustomMeshControlValueManager vm, boolean numLayers,
+            boolean stretching, boolean totalThickness) {
+        CustomPrismValuesManager cpvm = vm.get(CustomPrismValuesManager.class);
+        StringBuilder sb = new StringBuilder();
+        sb.append(numLayers);
+        if (numLayers) {
+            sb.append(":").append(cpvm.get(NumPrismLayers.class).getNumLayersValue().getValue());
+        }
+        sb.append(",").append(stretching);
+        if (stretching) {
+            sb.append(":").append(cpvm.get(PrismLayerStretching.class).getStretchingQuantity()
+                    .getInternalValue());
+        }
+        sb.append(",").append(totalThickness);
+        if (totalThickness) {
+            sb.append(_size(cpvm.get(PrismThickness.class)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Relative or absolute size option and the value in use. Null if unknown.
+     */
+    private String _size(ClientServerObject cso) {
+        RelativeOrAbsoluteOption.Type type;
+        double val;
+        if (cso instanceof PartsRelativeOrAbsoluteSize) {
+            PartsRelativeOrAbsoluteSize prs = (PartsRelativeOrAbsoluteSize) cso;
+            type = prs.getRelativeOrAbsoluteOption().getSelectedElement();
+            val = (type == RelativeOrAbsoluteOption.Type.ABSOLUTE)
+                    ? prs.getAbsoluteSizeValue().getInternalValue()
+                    : prs.getRelativeSizeScalar().getInternalValue();
+        } else if (cso instanceof RelativeOrAbsoluteSize) {
+            RelativeOrAbsoluteSize rs = (RelativeOrAbsoluteSize) cso;
+            type = rs.getRelativeOrAbsoluteOption().getSelectedElement();
+            val = (type == RelativeOrAbsoluteOption.Type.ABSOLUTE)
+                    ? rs.getAbsoluteSizeValue().getInternalValue()
+                    : rs.getRelativeSizeValue().getRelativeSize().getInternalValue();
+        } else {
+            return null;
+        }
+        return ":" + type + ":" + val;
+    }
+
+    private String _size(boolean isEnabled, ClientServerObject cso) {
+        return isEnabled ? "true" + _size(cso) : "false";
+    }
+
     private void _settingPrisms(ClientServerObject cso, boolean vo) {
         _io.say.action("Setting Prism Layers", vo);
         _io.say.object(cso, vo);
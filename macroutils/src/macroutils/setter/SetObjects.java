@@ -1,15 +1,18 @@
 package macroutils.setter;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
 import macroutils.MacroUtils;
 import macroutils.StaticDeclarations;
 import macroutils.UserDeclarations;
 import star.base.neo.ClientServerObject;
 import star.base.neo.NamedObject;
+import star.base.neo.NeoObjectVector;
 import star.base.report.Monitor;
 import star.base.report.Report;
 import star.base.report.ReportMonitor;
+import star.common.AutoSave;
 import star.common.ConstantScalarProfileMethod;
 import star.common.ConstantVectorProfileMethod;
 import star.common.FieldFunction;
@@ -19,6 +22,7 @@ import star.common.Simulation;
 import star.common.StarPlot;
 import star.common.StarUpdate;
 import star.common.StarUpdateModeOption;
+import star.common.Table;
 import star.common.Tag;
 import star.common.TagManager;
 import star.common.Units;
@@ -263,8 +267,31 @@ public class SetObjects {
     }
 
     /**
-     * Sets an Update Event to an Object, if applicable. Object can be any Plot, Monitor, Scene or
-     * Solution History.
+     * Adds a Tag to many CSOs at once, using a single Tag Manager call. Differently from
+     * {@link #tag(ClientServerObject, Tag, boolean)}, which replaces the Tags of an object, Tags
+     * already present are kept.
+     *
+     * @param acso given ArrayList of STAR-CCM+ ClientServerObjects.
+     * @param tag  given Tag.
+     * @param vo   given verbose option. False will only print the summary.
+     * @return The number of objects tagged.
+     */
+    public int addTag(ArrayList<? extends ClientServerObject> acso, Tag tag, boolean vo) {
+        _io.say.action("Adding a Tag to many objects", vo);
+        _io.say.object(tag, vo);
+        if (!acso.isEmpty()) {
+            _sim.get(TagManager.class).addTags(new NeoObjectVector(acso.toArray()),
+                    new NeoObjectVector(new Object[]{ tag }));
+        }
+        _io.say.msg(true, "Tag \"%s\" added to %d objects.", tag.getPresentationName(),
+                acso.size());
+        _io.say.ok(vo);
+        return acso.size();
+    }
+
+    /**
+     * Sets an Update Event to an Object, if applicable. Object can be any Plot, Monitor, Scene,
+     * Solution History, Table or the Auto Save.
      *
      * @param cso given STAR-CCM+ ClientServerObject.
      * @param ue  given UpdateEvent.
@@ -274,22 +301,33 @@ public class SetObjects {
         _io.say.action("Setting an Update Event", vo);
         _io.say.object(cso, vo);
         _io.say.object(ue, vo);
-        if (cso instanceof Report) {
-            ReportMonitor rm = _get.monitors.fromReport((Report) cso, false);
-            if (rm != null) {
-                cso = rm;
+        _setUE(cso, ue);
+        _io.say.ok(vo);
+    }
+
+    /**
+     * Sets the same Update Event to many Objects, if applicable. Objects can be any Plot,
+     * Monitor, Scene, Solution History, Table or the Auto Save. Nothing is printed per object.
+     *
+     * @param acso given ArrayList of STAR-CCM+ ClientServerObjects.
+     * @param ue   given UpdateEvent.
+     * @param vo   given verbose option. False will only print the summary.
+     * @return The number of objects changed.
+     */
+    public int updateEvent(ArrayList<? extends ClientServerObject> acso, UpdateEvent ue,
+            boolean vo) {
+        _io.say.action("Setting an Update Event to many objects", vo);
+        _io.say.object(ue, vo);
+        int n = 0;
+        for (ClientServerObject cso : acso) {
+            if (_setUE(cso, ue)) {
+                n++;
             }
         }
-        if (cso instanceof StarPlot) {
-            _setUE(((UpdatePlot) cso).getPlotUpdate(), ue);
-        } else if (cso instanceof Scene) {
-            _setUE(((Scene) cso).getSceneUpdate(), ue);
-        } else if (cso instanceof Monitor) {
-            _setUE(((Monitor) cso).getStarUpdate(), ue);
-        } else if (cso instanceof SolutionHistory) {
-            _setUE(((SolutionHistory) cso).getUpdate(), ue);
-        }
+        _io.say.msg(true, "Update Event \"%s\" set on %d objects. Not applicable: %d.",
+                ue.getPresentationName(), n, acso.size() - n);
         _io.say.ok(vo);
+        return n;
     }
 
     /**
@@ -326,6 +364,31 @@ public class SetObjects {
         _io.say.value(text, s, u, vo);
     }
 
+    private boolean _setUE(ClientServerObject cso, UpdateEvent ue) {
+        if (cso instanceof Report) {
+            ReportMonitor rm = _get.monitors.fromReport((Report) cso, false);
+            if (rm != null) {
+                cso = rm;
+            }
+        }
+        if (cso instanceof StarPlot) {
+            _setUE(((UpdatePlot) cso).getPlotUpdate(), ue);
+        } else if (cso instanceof Scene) {
+            _setUE(((Scene) cso).getSceneUpdate(), ue);
+        } else if (cso instanceof Monitor) {
+            _setUE(((Monitor) cso).getStarUpdate(), ue);
+        } else if (cso instanceof SolutionHistory) {
+            _setUE(((SolutionHistory) cso).getUpdate(), ue);
+        } else if (cso instanceof AutoSave) {
+            _setUE(((AutoSave) cso).getStarUpdate(), ue);
+        } else if (cso instanceof Table) {
+            _setUE(((Table) cso).getTableUpdate(), ue);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
     private void _setUE(StarUpdate su, UpdateEvent ue) {
         su.getUpdateModeOption().setSelected(StarUpdateModeOption.Type.EVENT);
         su.getEventUpdateFrequency().setUpdateEvent(ue);
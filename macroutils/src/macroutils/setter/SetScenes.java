@@ -1,6 +1,7 @@
 package macroutils.setter;
 
 import java.awt.Color;
+import java.util.ArrayList;
 import macroutils.MacroUtils;
 import macroutils.StaticDeclarations;
 import macroutils.UserDeclarations;
@@ -95,6 +96,31 @@ public class SetScenes {
         _io.say.ok(vo);
     }
 
+    /**
+     * Sets many Geometry Displayers to the same custom Solid color. Nothing is printed per
+     * Displayer.
+     *
+     * @param ad    given ArrayList of Displayers.
+     * @param color given Color.
+     * @param vo    given verbose option. False will only print the summary.
+     * @return The number of Displayers changed.
+     */
+    public int displayer(ArrayList<? extends Displayer> ad, Color color, boolean vo) {
+        _io.say.action("Setting a Solid Color on many Displayers", vo);
+        int n = 0;
+        for (Displayer d : ad) {
+            if (d instanceof PartDisplayer pd) {
+                pd.setColorMode(PartColorMode.CONSTANT);
+                pd.setDisplayerColorColor(color);
+                n++;
+            }
+        }
+        _io.say.msg(true, "Solid Color set on %d Displayers. Not a PartDisplayer: %d.", n,
+                ad.size() - n);
+        _io.say.ok(vo);
+        return n;
+    }
+
     /**
      * Sets some Displayer enhancements suggested by MacroUtils.
      *
@@ -1,5 +1,6 @@
 package macroutils.templates;
 
+import java.util.ArrayList;
 import macroutils.MacroUtils;
 import macroutils.StaticDeclarations;
 import macroutils.UserDeclarations;
@@ -9,6 +10,7 @@ import star.common.GeometryPart;
 import star.common.PartSurface;
 import star.common.Region;
 import star.common.Units;
+import star.meshing.CadPart;
 
 /**
  * Low-level class for some templated ready to go meshes with MacroUtils.
@@ -21,6 +23,7 @@ public class TemplateMesh {
     private macroutils.creator.MainCreator _add = null;
     private boolean _badgeFor2D = false;
     private macroutils.getter.MainGetter _get = null;
+    private macroutils.io.MainIO _io = null;
     private MacroUtils _mu = null;
     private macroutils.templates.MainTemplates _templ = null;
 
@@ -67,6 +70,79 @@ public class TemplateMesh {
         return reg;
     }
 
+    /**
+     * Multi-block version of {@link #hexaBlock}. This method will do the following:
+     * <ol>
+     * <li> Checks that every shared face between two blocks is conformal, i.e., same extents and
+     * same number of cells. Nothing is created otherwise;
+     * <li> Creates one Block Part per block, named <i>name 1</i>, <i>name 2</i>, etc...;
+     * <li> Creates one Directed Mesh Operation per block, without executing them;
+     * <li> Generates the Volume Mesh for all blocks at once;
+     * <li> Finds the Part contacts and assigns all Parts to a single Region at the end.
+     * </ol>
+     *
+     * @param c1     given array of 3-components arrays with the first coordinate of every block.
+     * @param c2     given array of 3-components arrays with the second coordinate of every block.
+     * @param u      given Units.
+     * @param nCells given array of 3-components arrays with Directed Mesher cells in X, Y and Z
+     *               of every block.
+     * @param name   given name for the Parts and Region.
+     * @return The generated Region. Null if the topology is not valid.
+     */
+    public Region hexaBlocks(double[][] c1, double[][] c2, Units u, int[][] nCells,
+            String name) {
+        _io.say.action("Creating a Multi-Block Hexa Mesh", true);
+        _io.say.value("Number of Blocks", c1.length, true);
+        if (c2.length != c1.length || nCells.length != c1.length) {
+            _io.say.msg("Coordinates and number of cells do not match. Returning NULL!");
+            return null;
+        }
+        double tol = _tolerance(c1, c2);
+        int shared = 0;
+        for (int i = 0; i < c1.length; i++) {
+            for (int j = i + 1; j < c1.length; j++) {
+                int face = _sharedFace(c1, c2, nCells, i, j, tol);
+                if (face < 0) {
+                    return null;
+                }
+                shared += face;
+            }
+        }
+        _io.say.value("Shared Faces", shared, true);
+        ArrayList<GeometryPart> agp = new ArrayList<>();
+        ArrayList<CadPart> acp = new ArrayList<>();
+        for (int i = 0; i < c1.length; i++) {
+            String blockName = String.format("%s %d", name, i + 1);
+            Body b = _templ.geometry.block(c1[i], c2[i], u, blockName, false);
+            CadPart cp = _get.geometries.cadPart(b, false);
+            PartSurface src = _get.partSurfaces.byREGEX(cp, "x0", false);
+            PartSurface tgt = _get.partSurfaces.byREGEX(cp, "x1", false);
+            _add.meshOperation.directedMeshing_Channel(src, tgt,
+                    nCells[i][0], nCells[i][1], nCells[i][2], false);
+            acp.add(cp);
+            agp.add(cp);
+        }
+        if (_badgeFor2D) {
+            _add.meshOperation.badgeFor2D(agp);
+        }
+        _mu.update.volumeMesh();
+        double minEdge = StaticDeclarations.BIG_NUMBER;
+        for (int i = 0; i < c1.length; i++) {
+            for (int a = 0; a < 3; a++) {
+                minEdge = Math.min(minEdge, Math.abs(c2[i][a] - c1[i][a]));
+            }
+        }
+        double contactTol = 1e-3 * minEdge * u.getConversion()
+                / _mu.userDeclarations.defUnitLength.getConversion();
+        _add.geometry.contacts(acp, contactTol);
+        Region reg = _add.region.fromParts(agp,
+                StaticDeclarations.BoundaryMode.ONE_FOR_EACH_PART_SURFACE,
+                StaticDeclarations.InterfaceMode.CONTACT,
+                true);
+        reg.setPresentationName(name);
+        return reg;
+    }
+
     /**
      * This method will do the following:
      * <ol>
@@ -125,7 +201,68 @@ public class TemplateMesh {
     public void updateInstances() {
         _add = _mu.add;
         _get = _mu.get;
+        _io = _mu.io;
         _templ = _mu.templates;
     }
 
+    private boolean _isSame(double a, double b, double tol) {
+        return Math.abs(a - b) <= tol;
+    }
+
+    /**
+     * Returns 1 if blocks i and j share a conformal face, 0 if they do not touch and -1 if they
+     * touch in a non conformal manner.
+     */
+    private int _sharedFace(double[][] c1, double[][] c2, int[][] nCells, int i, int j,
+            double tol) {
+        for (int a = 0; a < 3; a++) {
+            double maxI = Math.max(c1[i][a], c2[i][a]), minI = Math.min(c1[i][a], c2[i][a]);
+            double maxJ = Math.max(c1[j][a], c2[j][a]), minJ = Math.min(c1[j][a], c2[j][a]);
+            if (!_isSame(maxI, minJ, tol) && !_isSame(maxJ, minI, tol)) {
+                continue;
+            }
+            boolean overlaps = true, conformal = true;
+            for (int t = 0; t < 3; t++) {
+                if (t == a) {
+                    continue;
+                }
+                double lo = Math.max(Math.min(c1[i][t], c2[i][t]), Math.min(c1[j][t], c2[j][t]));
+                double hi = Math.min(Math.max(c1[i][t], c2[i][t]), Math.max(c1[j][t], c2[j][t]));
+                overlaps &= hi > lo && !_isSame(hi, lo, tol);
+                double loI = Math.min(c1[i][t], c2[i][t]), hiI = Math.max(c1[i][t], c2[i][t]);
+                double loJ = Math.min(c1[j][t], c2[j][t]), hiJ = Math.max(c1[j][t], c2[j][t]);
+                conformal &= _isSame(loI, loJ, tol) && _isSame(hiI, hiJ, tol)
+                        && nCells[i][t] == nCells[j][t];
+            }
+            if (!overlaps) {
+                continue;
+            }
+            if (!conformal) {
+                _io.say.msg(true, "Blocks %d and %d share a non conformal face. Returning NULL!",
+                        i + 1, j + 1);
+                return -1;
+            }
+            _io.say.msg(true, "  - Blocks %d and %d share a face normal to %s.", i + 1, j + 1,
+                    StaticDeclarations.Axis.values()[a]);
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Absolute tolerance for comparing block coordinates, scaled to the extents of all blocks.
+     */
+    private double _tolerance(double[][] c1, double[][] c2) {
+        double extent = 0.0;
+        for (int a = 0; a < 3; a++) {
+            double min = Double.MAX_VALUE, max = -Double.MAX_VALUE;
+            for (int i = 0; i < c1.length; i++) {
+                min = Math.min(min, Math.min(c1[i][a], c2[i][a]));
+                max = Math.max(max, Math.max(c1[i][a], c2[i][a]));
+            }
+            extent = Math.max(extent, max - min);
+        }
+        return 1e-6 * extent;
+    }
+
 }
@@ -1,6 +1,7 @@
 package macroutils.templates;
 
 import java.awt.Color;
+import java.util.HashMap;
 import java.util.List;
 import macroutils.MacroUtils;
 import macroutils.StaticDeclarations;
@@ -28,6 +29,10 @@ import star.vis.Scene;
 /**
  * Low-level class for prettifying your simulation file with MacroUtils.
  *
+ * Prettifying is incremental: a fingerprint of every object styled is kept and only new or
+ * modified objects are processed in the next passes. Use {@link #all(boolean)} or {@link #reset}
+ * for prettifying everything again.
+ *
  * @since April of 2016
  * @author Fabio Kasper
  */
@@ -39,6 +44,7 @@ public class TemplatePrettifier {
     final private int _SYMBOL_SIZE = 12;
     final private int _SYMBOL_SPACING = 20;
     private macroutils.checker.MainChecker _chk = null;
+    private final HashMap<NamedObject, String> _fingerprints = new HashMap<>();
     private macroutils.getter.MainGetter _get = null;
     private macroutils.io.MainIO _io = null;
     private MacroUtils _mu = null;
@@ -62,6 +68,8 @@ public class TemplatePrettifier {
      * <li>Prettify {@link #plots};</li>
      * <li>Prettify {@link #scenes};</li>
      * </ul>
+     *
+     * Only objects that are new or modified since the last pass are processed.
      */
     public void all() {
         annotations();
@@ -69,15 +77,34 @@ public class TemplatePrettifier {
         scenes();
     }
 
+    /**
+     * Prettifies the simulation file. See {@link #all()}.
+     *
+     * @param full given option to prettify all objects again, even if unchanged since the last
+     *             pass.
+     */
+    public void all(boolean full) {
+        if (full) {
+            reset();
+        }
+        all();
+    }
+
     /**
      * Prettifies the Annotations.
      */
     public void annotations() {
         _io.say.action("Prettifying Annotations", true);
         //--
+        int unchanged = 0;
         LogoAnnotation la = (LogoAnnotation) _get.objects.annotation("Logo", false);
-        la.setOpacity(0.8);
-        _sayPrettifying(la, true);
+        if (_isStyled(la, 0)) {
+            unchanged++;
+        } else {
+            la.setOpacity(0.8);
+            _sayPrettifying(la, true);
+            _setStyled(la, 0);
+        }
         //--
         for (star.vis.Annotation a : _sim.getAnnotationManager().getObjects()) {
             boolean isLogo = a instanceof star.vis.LogoAnnotation;
@@ -87,13 +114,19 @@ public class TemplatePrettifier {
             if (isLogo || isPlot || isScn) {
                 continue;
             }
+            if (_isStyled(a, 0)) {
+                unchanged++;
+                continue;
+            }
             _sayPrettifying(a, true);
             if (isSimple) {
                 a.setFont(StaticDeclarations.Fonts.SIMPLE_ANNOTATIONS.getFont());
-                continue;
+            } else {
+                a.setFont(StaticDeclarations.Fonts.REPORT_ANNOTATIONS.getFont());
             }
-            a.setFont(StaticDeclarations.Fonts.REPORT_ANNOTATIONS.getFont());
+            _setStyled(a, 0);
         }
+        _sayUnchanged(unchanged);
         _io.say.ok(true);
     }
 
@@ -112,8 +145,14 @@ public class TemplatePrettifier {
     public void monitors() {
         String s = " Monitor";
         _io.say.action("Prettifying Monitors", true);
+        int unchanged = 0;
         for (Monitor mon : _sim.getMonitorManager().getObjects()) {
+            if (_isStyled(mon, 0)) {
+                unchanged++;
+                continue;
+            }
             if (_needSkipping(mon, true)) {
+                _setStyled(mon, 0);
                 continue;
             }
             _sayPrettifying(mon, true);
@@ -126,7 +165,9 @@ public class TemplatePrettifier {
                         .setSelected(MonitorNormalizeOption.Type.OFF);
                 _io.say.msg(true, _FMT2, "Normalization is now OFF");
             }
+            _setStyled(mon, 0);
         }
+        _sayUnchanged(unchanged);
         _io.say.ok(true);
     }
 
@@ -135,40 +176,74 @@ public class TemplatePrettifier {
      */
     public void plots() {
         _io.say.action("Prettifying Plots", true);
+        int unchanged = 0;
         for (StarPlot sp : _sim.getPlotManager().getObjects()) {
+            if (_isStyled(sp, sp.getDataSetCollection().size())) {
+                unchanged++;
+                continue;
+            }
             if (_needSkipping(sp, true)) {
+                _setStyled(sp, sp.getDataSetCollection().size());
                 continue;
             }
             _sayPrettifying(sp, true);
             if (_chk.is.histogram(sp) && sp instanceof Cartesian2DPlot plot) {
                 histogram(plot);
-                continue;
+            } else {
+                plot(sp);
             }
-            plot(sp);
+            _setStyled(sp, sp.getDataSetCollection().size());
         }
+        _sayUnchanged(unchanged);
         _io.say.ok(true);
     }
 
+    /**
+     * Forgets all objects prettified so far, so the next pass will process everything again.
+     */
+    public void reset() {
+        _fingerprints.clear();
+    }
+
+    /**
+     * Prettifies the Scenes and their Displayers. Displayers are only visited in Scenes that are
+     * new or modified since the last pass. Skipping a Scene does not skip its Displayers.
+     */
     public void scenes() {
         _io.say.action("Prettifying Scenes", true);
+        int unchanged = 0;
         for (Scene scn : _sim.getSceneManager().getScenes()) {
-            if (_needSkipping(scn, true)) {
+            List<Displayer> ld = _get.scenes.allDisplayers(scn, false);
+            if (_isStyled(scn, ld.size())) {
+                unchanged++;
                 continue;
             }
-            _sayPrettifying(scn, true);
-            _io.say.msg(true, _FMT2, "Setting Solid White Background");
-            _set.scene.background(scn, Color.white, false);
-            //-- Change Color of Axis
-            Color c = StaticDeclarations.Colors.SLATE_GRAY_DARK.getColor();
-            scn.setAxesTextColor(new DoubleVector(c.getColorComponents(null)));
-        }
-        for (Displayer d : _get.scenes.allDisplayers(false)) {
-            if (_needSkipping(d, true)) {
-                continue;
+            //-- Only new or renamed Scenes are styled, e.g., after removing the "#" prefix.
+            String fp = _fingerprints.get(scn);
+            boolean isNew = fp == null || !fp.startsWith(scn.getPresentationName() + "|");
+            if (isNew && !_needSkipping(scn, true)) {
+                _sayPrettifying(scn, true);
+                _io.say.msg(true, _FMT2, "Setting Solid White Background");
+                _set.scene.background(scn, Color.white, false);
+                //-- Change Color of Axis
+                Color c = StaticDeclarations.Colors.SLATE_GRAY_DARK.getColor();
+                scn.setAxesTextColor(new DoubleVector(c.getColorComponents(null)));
+            }
+            for (Displayer d : ld) {
+                if (_isStyled(d, 0)) {
+                    continue;
+                }
+                if (_needSkipping(d, true)) {
+                    _setStyled(d, 0);
+                    continue;
+                }
+                _io.say.msg(true, _FMT2, String.format("Displayer: %s", d.getPresentationName()));
+                _set.scene.displayerEnhancements(d);
+                _setStyled(d, 0);
             }
-            _io.say.msg(true, _FMT2, String.format("Displayer: %s", d.getPresentationName()));
-            _set.scene.displayerEnhancements(d);
+            _setStyled(scn, ld.size());
         }
+        _sayUnchanged(unchanged);
         _io.say.ok(true);
     }
 
@@ -187,6 +262,14 @@ public class TemplatePrettifier {
         _io.say.msg(vo, _FMT2, String.format("New Name: \"%s\".", no.getPresentationName()));
     }
 
+    private String _fingerprint(NamedObject no, int children) {
+        return no.getPresentationName() + "|" + children;
+    }
+
+    private boolean _isStyled(NamedObject no, int children) {
+        return _fingerprint(no, children).equals(_fingerprints.get(no));
+    }
+
     private boolean _needSkipping(NamedObject no, boolean vo) {
         if (no.getPresentationName().startsWith("#")) {
             _saySkipping(no, vo);
@@ -208,6 +291,12 @@ public class TemplatePrettifier {
         _sayGeneric("Skipping", no, vo);
     }
 
+    private void _sayUnchanged(int n) {
+        if (n > 0) {
+            _io.say.msg(true, "  - Unchanged since last pass: %d.", n);
+        }
+    }
+
     private void _setAxes(StarPlot sp) {
         _setLabel(_get.plots.axisX(sp));
         _setLabel(_get.plots.axisY(sp));
@@ -283,6 +372,10 @@ public class TemplatePrettifier {
         mcl.setFont(StaticDeclarations.Fonts.OTHER.getFont());
     }
 
+    private void _setStyled(NamedObject no, int children) {
+        _fingerprints.put(no, _fingerprint(no, children));
+    }
+
     private void histogram(Cartesian2DPlot hp) {
         _set.plots.bins(hp, 20, true);
         PartGroupDataSet hds = (PartGroupDataSet) hp.getDataSeriesOrder().getFirst();
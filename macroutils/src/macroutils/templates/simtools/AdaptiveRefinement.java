@@ -0,0 +1,347 @@
+package macroutils.templates.simtools;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import macroutils.MacroUtils;
+import macroutils.StaticDeclarations;
+import macroutils.UserDeclarations;
+import macroutils.getter.MainGetter;
+import star.base.neo.NamedObject;
+import star.base.report.Report;
+import star.common.FieldFunction;
+import star.common.GeometryPart;
+import star.common.Units;
+import star.meshing.AutoMeshOperation;
+import star.vis.ThresholdMode;
+import star.vis.ThresholdPart;
+
+/**
+ * This class will refine the volume mesh of an Automated Mesh Operation where a refinement
+ * indicator is large, in cycles, instead of placing refinement zones by hand or refining the
+ * whole domain.
+ *
+ * Every cycle will perform the following actions:
+ * <ul>
+ * <li>Solve on the current mesh;
+ * <li>Flag the cells where the indicator, e.g., a velocity gradient magnitude, vorticity,
+ * Q-criterion or a user definition from
+ * {@link macroutils.creator.CreateTools#fieldFunction}, is above a tolerance, using a Threshold
+ * Part;
+ * <li>Cluster the flagged cells into a few boxes and create a Custom Volume Control on them, with a
+ * relative size smaller than the previous cycle;
+ * <li>Update the volume mesh.
+ * </ul>
+ *
+ * Cycles stop when the maximum number of cycles is reached, the cell budget is exceeded or no cell
+ * is above the indicator tolerance. The Simulation is solved once more after the last update.
+ *
+ * <b>Application</b>: reach a given accuracy with far fewer cells than uniform refinement.
+ *
+ * @since October of 2026
+ * @author Fabio Kasper
+ */
+public class AdaptiveRefinement {
+
+    /**
+     * Maximum number of boxes per cycle. Flagged cells are clustered coarser until they fit.
+     */
+    public static final int MAX_BOXES = 8;
+
+    private final AutoMeshOperation _amo;
+    private double _binSize = 0.0;
+    private long _cellBudget = Long.MAX_VALUE;
+    private double _fraction = 0.2;
+    private final FieldFunction _ff;
+    private final MainGetter _get;
+    private int _iterations = 0;
+    private int _maxCycles = 3;
+    private final MacroUtils _mu;
+    private double _ratio = 0.5;
+    private double _relSize = 50.0;
+    private double _tolerance = Double.NaN;
+    private final Units _u;
+    private final UserDeclarations _ud;
+
+    /**
+     * Main constructor for this class.
+     *
+     * @param m   given MacroUtils object.
+     * @param amo given Automated Mesh Operation that generates the volume mesh.
+     * @param ff  given refinement indicator Field Function. Must be a scalar.
+     * @param u   given indicator Units. Null for dimensionless.
+     */
+    public AdaptiveRefinement(MacroUtils m, AutoMeshOperation amo, FieldFunction ff, Units u) {
+        _mu = m;
+        _ud = _mu.userDeclarations;
+        _get = _mu.get;
+        _amo = amo;
+        _ff = ff;
+        _u = (u == null) ? _ud.unit_Dimensionless : u;
+    }
+
+    /**
+     * Clusters points into boxes. Points are binned in a uniform grid and bins that touch each
+     * other, including diagonally, are joined. Every box covers its bins plus one bin around them.
+     *
+     * @param x   given x coordinates.
+     * @param y   given y coordinates.
+     * @param z   given z coordinates.
+     * @param bin given bin size, in the same units as the coordinates.
+     * @return An ArrayList with boxes as {minX, minY, minZ, maxX, maxY, maxZ}.
+     */
+    public static ArrayList<double[]> clusters(double[] x, double[] y, double[] z, double bin) {
+        HashMap<Long, Integer> bins = new HashMap<>();
+        for (int i = 0; i < x.length; i++) {
+            bins.put(_key(_bin(x[i], bin), _bin(y[i], bin), _bin(z[i], bin)), -1);
+        }
+        ArrayList<double[]> boxes = new ArrayList<>();
+        for (long seed : bins.keySet()) {
+            if (bins.get(seed) >= 0) {
+                continue;
+            }
+            int id = boxes.size();
+            long[] lo = { Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE };
+            long[] hi = { Long.MIN_VALUE, Long.MIN_VALUE, Long.MIN_VALUE };
+            ArrayDeque<Long> queue = new ArrayDeque<>();
+            bins.put(seed, id);
+            queue.add(seed);
+            while (!queue.isEmpty()) {
+                long[] ijk = _unkey(queue.poll());
+                for (int k = 0; k < 3; k++) {
+                    lo[k] = Math.min(lo[k], ijk[k]);
+                    hi[k] = Math.max(hi[k], ijk[k]);
+                }
+                for (int di = -1; di <= 1; di++) {
+                    for (int dj = -1; dj <= 1; dj++) {
+                        for (int dk = -1; dk <= 1; dk++) {
+                            long n = _key(ijk[0] + di, ijk[1] + dj, ijk[2] + dk);
+                            Integer visited = bins.get(n);
+                            if (visited != null && visited < 0) {
+                                bins.put(n, id);
+                                queue.add(n);
+                            }
+                        }
+                    }
+                }
+            }
+            boxes.add(new double[]{ (lo[0] - 1) * bin, (lo[1] - 1) * bin, (lo[2] - 1) * bin,
+                (hi[0] + 2) * bin, (hi[1] + 2) * bin, (hi[2] + 2) * bin });
+        }
+        return boxes;
+    }
+
+    /**
+     * Runs the refinement cycles. See {@link AdaptiveRefinement}.
+     */
+    public void execute() {
+        _mu.io.say.action("Adaptive Mesh Refinement", true);
+        _mu.io.say.object(_amo, true);
+        _mu.io.say.object(_ff, true);
+        _mu.io.say.value("Maximum Cycles", _maxCycles, true);
+        for (int cycle = 1; cycle <= _maxCycles; cycle++) {
+            _solve(cycle > 1);
+            long cells = _get.mesh.fvr().getCellCount();
+            _mu.io.say.msg(true, "Cycle %d: %d cells.", cycle, cells);
+            if (cells >= _cellBudget) {
+                _mu.io.say.msg(true, "Cell budget of %d reached. Stopping.", _cellBudget);
+                _mu.io.say.ok(true);
+                return;
+            }
+            ArrayList<double[]> boxes = _flaggedBoxes();
+            if (boxes.isEmpty()) {
+                _mu.io.say.msg(true, "No cells above the indicator tolerance. Stopping.");
+                _mu.io.say.ok(true);
+                return;
+            }
+            double relSize = Math.max(1.0, _relSize * Math.pow(_ratio, cycle - 1));
+            ArrayList<GeometryPart> agp = new ArrayList<>();
+            for (double[] box : boxes) {
+                GeometryPart gp = _mu.add.geometry.block(new double[]{ box[0], box[1], box[2] },
+                        new double[]{ box[3], box[4], box[5] }, _ud.unit_m);
+                gp.setPresentationName(String.format("Adaptive Refinement Cycle %d Box %d", cycle,
+                        agp.size() + 1));
+                agp.add(gp);
+            }
+            _mu.add.meshOperation.volumetricControl(_amo, agp, relSize)
+                    .setPresentationName(String.format("Adaptive Refinement Cycle %d", cycle));
+            _mu.io.say.msg(true, "Cycle %d: %d box(es) refined to %g%%.", cycle, boxes.size(),
+                    relSize);
+            _mu.update.volumeMesh();
+        }
+        _solve(true);
+        _mu.io.say.msg(true, "Final Cell Count: %d.", _get.mesh.fvr().getCellCount());
+        _mu.io.say.ok(true);
+    }
+
+    /**
+     * Sets the cell budget. No further refinement is done once the mesh has this many cells.
+     *
+     * @param cells given number of cells.
+     */
+    public void setCellBudget(long cells) {
+        _cellBudget = cells;
+    }
+
+    /**
+     * Sets the bin size used for clustering flagged cells into boxes. Default is 1/16 of the
+     * largest extent of the flagged cells.
+     *
+     * @param size given size in default units. See {@link UserDeclarations#defUnitLength}.
+     */
+    public void setClusterSize(double size) {
+        _binSize = size * _ud.defUnitLength.getConversion();
+    }
+
+    /**
+     * Sets how the indicator is flagged when no tolerance is given: cells above this fraction of
+     * its maximum value are refined. Default is 0.2.
+     *
+     * @param fraction given fraction, between 0 and 1.
+     */
+    public void setFraction(double fraction) {
+        _fraction = fraction;
+    }
+
+    /**
+     * Sets the solver iterations (steady) or timesteps (unsteady) per cycle, starting from the
+     * solution interpolated onto the new mesh. Default is 0, i.e., the solution is cleared after
+     * every mesh update and run until the stopping criteria are met.
+     *
+     * @param n given number of iterations or timesteps.
+     */
+    public void setIterations(int n) {
+        _iterations = n;
+    }
+
+    /**
+     * Sets the maximum number of refinement cycles. Default is 3.
+     *
+     * @param n given number of cycles.
+     */
+    public void setMaxCycles(int n) {
+        _maxCycles = n;
+    }
+
+    /**
+     * Sets the relative size of the Custom Volume Controls. Default is 50% on the first cycle and
+     * half of the previous size on every other cycle.
+     *
+     * @param relSize given relative size (%) on the first cycle.
+     * @param ratio   given ratio between the sizes of consecutive cycles.
+     */
+    public void setRelativeSize(double relSize, double ratio) {
+        _relSize = relSize;
+        _ratio = ratio;
+    }
+
+    /**
+     * Sets the indicator tolerance. Cells above it are refined and cycles stop once no cell is
+     * above it. Default is none. See {@link #setFraction}.
+     *
+     * @param tol given tolerance, in the indicator Units.
+     */
+    public void setTolerance(double tol) {
+        _tolerance = tol;
+    }
+
+    private static long _bin(double v, double bin) {
+        return (long) Math.floor(v / bin);
+    }
+
+    private ArrayList<double[]> _flaggedBoxes() {
+        ArrayList<NamedObject> ano = new ArrayList<>(_get.regions.all(false));
+        double thr = _tolerance;
+        if (Double.isNaN(thr)) {
+            //-- Underscore prefixed, so no Monitor and Plot are created along.
+            String name = "_Adaptive Refinement Indicator Maximum";
+            Report r = _mu.add.report.maximum(ano, name, _ff, _u, false);
+            thr = _fraction * _get.reports.value(r);
+            _mu.getSimulation().getReportManager().removeObjects(r);
+        }
+        _mu.io.say.value("Indicator Threshold", thr, _u, true);
+        double thrSI = thr * _u.getConversion();
+        ThresholdPart tp = _mu.add.derivedPart.threshold(ano, _ff,
+                new double[]{ thrSI, StaticDeclarations.BIG_NUMBER }, ThresholdMode.INSIDE_TAG);
+        ArrayList<FieldFunction> aff = new ArrayList<>();
+        aff.add(_ff);
+        File bin = _mu.io.write.fieldData(tp, aff, false);
+        _mu.getSimulation().getPartManager().removeObjects(tp);
+        if (bin == null) {
+            return new ArrayList<>();
+        }
+        LinkedHashMap<String, String> units = new LinkedHashMap<>();
+        LinkedHashMap<String, double[]> data = _mu.io.read.fieldData(bin, units, false);
+        bin.delete();
+        if (data == null || !data.containsKey("X") || data.get("X").length == 0) {
+            return new ArrayList<>();
+        }
+        double[] x = data.get("X"), y = data.get("Y"), z = data.get("Z");
+        //-- Coordinates are exported in the Simulation units. Boxes are created in meters.
+        for (String col : new String[]{ "X", "Y", "Z" }) {
+            String name = units.getOrDefault(col, "");
+            Units u = name.isEmpty() ? _ud.unit_m : _get.units.byName(name, false);
+            if (u == null) {
+                _mu.io.say.msg(true, "Unknown unit \"%s\" for %s coordinates.", name, col);
+                return new ArrayList<>();
+            }
+            double[] values = data.get(col);
+            for (int i = 0; i < values.length; i++) {
+                values[i] *= u.getConversion();
+            }
+        }
+        _mu.io.say.value("Flagged Cells", x.length, true);
+        double size = _binSize;
+        if (size <= 0.0) {
+            size = Math.max(_range(x), Math.max(_range(y), _range(z))) / 16.0;
+            size = (size > 0.0) ? size : 1.0;
+        }
+        ArrayList<double[]> boxes = clusters(x, y, z, size);
+        while (boxes.size() > MAX_BOXES) {
+            size *= 2.0;
+            boxes = clusters(x, y, z, size);
+        }
+        return boxes;
+    }
+
+    private static long _key(long i, long j, long k) {
+        return ((i & 0x1FFFFF) << 42) | ((j & 0x1FFFFF) << 21) | (k & 0x1FFFFF);
+    }
+
+    private double _range(double[] values) {
+        double min = Double.MAX_VALUE, max = -Double.MAX_VALUE;
+        for (double v : values) {
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        return max - min;
+    }
+
+    /**
+     * After a mesh update the stopping criteria are still satisfied, so running again would not
+     * iterate at all unless the solution is cleared first.
+     */
+    private void _solve(boolean remeshed) {
+        if (_iterations > 0) {
+            _mu.step(_iterations);
+            return;
+        }
+        if (remeshed) {
+            _mu.clear.solution();
+        }
+        _mu.run();
+    }
+
+    private static long[] _unkey(long key) {
+        long[] ijk = { (key >> 42) & 0x1FFFFF, (key >> 21) & 0x1FFFFF, key & 0x1FFFFF };
+        for (int k = 0; k < 3; k++) {
+            if (ijk[k] >= 0x100000) {
+                ijk[k] -= 0x200000;
+            }
+        }
+        return ijk;
+    }
+
+}
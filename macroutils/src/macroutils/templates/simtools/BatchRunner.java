@@ -0,0 +1,411 @@
+package macroutils.templates.simtools;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import macroutils.MacroUtils;
+
+/**
+ * This class will apply the same post-processing {@link Workflow} to many Simulation files, each
+ * one in its own batch process, and merge the results into a single table.
+ *
+ * In addition, it will perform the following actions:
+ * <ul>
+ * <li>Find the Simulation files in a folder, optionally filtered by a glob pattern;
+ * <li>Write a small worker macro that runs the Workflow on the active Simulation and stores its
+ * results in a per-file CSV;
+ * <li>Run the worker processes concurrently in a bounded pool, sized to the available cores, and
+ * restart the ones that fail;
+ * <li>Merge the per-file CSVs into one consolidated table, with one row per Simulation file.
+ * </ul>
+ *
+ * This class does not need a Simulation. It can be used from a plain Java program, which holds no
+ * license while waiting. The worker command is configurable, e.g., a stand-in script that only
+ * writes the output file, for checking the scheduling without STAR-CCM+. See
+ * {@link #setCommand}.
+ *
+ * <b>Application</b>: nightly post-processing, such as Scene pictures, Report tables and
+ * summaries, of hundreds of finished Simulation files.
+ *
+ * @since October of 2026
+ * @author Fabio Kasper
+ */
+public class BatchRunner {
+
+    /**
+     * Name of the consolidated table written in the output folder.
+     */
+    public static final String RESULTS = "batch_results.csv";
+
+    private static final String _WORKER = "BatchWorker";
+
+    private String _classpath = System.getProperty("java.class.path");
+    private List<String> _command = Arrays.asList("starccm+", "-batch", "{macro}", "-np", "{np}",
+            "-classpath", "{classpath}", "{sim}");
+    private int _np = 1;
+    private final File _outDir;
+    private int _retries = 2;
+    private long _timeout = 0;
+    private int _workers = 0;
+    private final String _workflow;
+
+    /**
+     * Main constructor for this class.
+     *
+     * @param workflow given Workflow class. It must have a public constructor without arguments
+     *                 and be in the classpath of the worker processes. See {@link #setClasspath}.
+     * @param outDir   given output folder for the worker macro, logs and results.
+     */
+    public BatchRunner(Class<? extends Workflow> workflow, File outDir) {
+        _workflow = workflow.getName();
+        _outDir = outDir;
+    }
+
+    /**
+     * Runs a Workflow on the active Simulation and writes its results. This method is called by
+     * the worker macro.
+     *
+     * @param mu  given MacroUtils object.
+     * @param w   given Workflow.
+     * @param out given per-file CSV.
+     */
+    public static void work(MacroUtils mu, Workflow w, File out) {
+        LinkedHashMap<String, String> row = w.run(mu);
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(out))) {
+            bw.write(_join(row.keySet()));
+            bw.newLine();
+            bw.write(_join(row.values()));
+            bw.newLine();
+        } catch (IOException ex) {
+            mu.io.say.msg(true, "Could not write results: %s", ex.getMessage());
+        }
+    }
+
+    /**
+     * Runs the Workflow on every Simulation file of a folder.
+     *
+     * @param simDir given folder with Simulation files.
+     * @param glob   given glob pattern for the file names. E.g.: {@code "case_*.sim"}. Null for all
+     *               Simulation files.
+     * @return The consolidated table. Null if nothing was run.
+     */
+    public File execute(File simDir, String glob) {
+        PathMatcher pm = FileSystems.getDefault()
+                .getPathMatcher("glob:" + ((glob == null) ? "*.sim" : glob));
+        ArrayList<File> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(simDir.toPath())) {
+            paths.filter(p -> pm.matches(p.getFileName()) && p.toString().endsWith(".sim"))
+                    .sorted().forEach(p -> files.add(p.toFile()));
+        } catch (IOException ex) {
+            _say("Could not list \"%s\": %s", simDir, ex.getMessage());
+            return null;
+        }
+        return execute(files);
+    }
+
+    /**
+     * Runs the Workflow on given Simulation files.
+     *
+     * @param files given Simulation files.
+     * @return The consolidated table. Null if nothing was run.
+     */
+    public File execute(List<File> files) {
+        int workers = (_workers > 0) ? _workers
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / _np);
+        _say("Running batch Workflow: %s", _workflow);
+        _say("Simulation files: %d; workers: %d; processes per worker: %d; retries: %d.",
+                files.size(), workers, _np, _retries);
+        if (files.isEmpty() || !(_outDir.isDirectory() || _outDir.mkdirs())) {
+            _say("Nothing to run.");
+            return null;
+        }
+        File macro = _writeWorker();
+        if (macro == null) {
+            return null;
+        }
+        long t0 = System.currentTimeMillis();
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        LinkedHashMap<File, Future<Boolean>> jobs = new LinkedHashMap<>();
+        files.forEach(f -> jobs.put(f, pool.submit(() -> _runWithRetries(f, macro))));
+        pool.shutdown();
+        LinkedHashMap<File, Boolean> status = new LinkedHashMap<>();
+        for (File f : jobs.keySet()) {
+            try {
+                status.put(f, jobs.get(f).get());
+            } catch (Exception ex) {
+                status.put(f, false);
+            }
+        }
+        long failed = status.values().stream().filter(ok -> !ok).count();
+        _say("Finished in %.1f min: %d succeeded; %d failed.",
+                (System.currentTimeMillis() - t0) / 60000.0, files.size() - failed, failed);
+        return _merge(status);
+    }
+
+    /**
+     * Sets the classpath given to the worker processes. Default is the classpath of the current
+     * JVM, which must include MacroUtils and the Workflow.
+     *
+     * @param classpath given classpath.
+     */
+    public void setClasspath(String classpath) {
+        _classpath = classpath;
+    }
+
+    /**
+     * Sets the worker command. The following placeholders are replaced in every argument:
+     * <ul>
+     * <li><b>{sim}</b>: the Simulation file;
+     * <li><b>{macro}</b>: the worker macro;
+     * <li><b>{out}</b>: the per-file CSV the worker must write;
+     * <li><b>{np}</b>: the number of processes per worker;
+     * <li><b>{classpath}</b>: the classpath. See {@link #setClasspath}.
+     * </ul>
+     * Default is {@code starccm+ -batch {macro} -np {np} -classpath {classpath} {sim}}. A worker
+     * succeeds when it exits with zero and writes its CSV.
+     *
+     * @param command given command and arguments.
+     */
+    public void setCommand(List<String> command) {
+        _command = new ArrayList<>(command);
+    }
+
+    /**
+     * Sets the number of processes used by every worker, e.g., the {@code -np} of STAR-CCM+.
+     * Default is 1.
+     *
+     * @param np given number of processes.
+     */
+    public void setProcesses(int np) {
+        _np = Math.max(1, np);
+    }
+
+    /**
+     * Sets how many times a failed worker is restarted. Default is 2.
+     *
+     * @param n given number of retries.
+     */
+    public void setRetries(int n) {
+        _retries = Math.max(0, n);
+    }
+
+    /**
+     * Sets the maximum wall clock time of a worker, after which it is killed, together with all
+     * processes it started, and counted as failed. Default is 0, i.e., no limit.
+     *
+     * @param minutes given time in minutes.
+     */
+    public void setTimeout(double minutes) {
+        _timeout = (long) (60000 * minutes);
+    }
+
+    /**
+     * Sets the number of concurrent workers. Default is 0, i.e., the available cores divided by
+     * the processes per worker.
+     *
+     * @param n given number of workers.
+     */
+    public void setWorkers(int n) {
+        _workers = n;
+    }
+
+    private String _baseName(File sim) {
+        return sim.getName().replaceAll("\\.sim$", "");
+    }
+
+    private static String _join(Collection<String> values) {
+        return values.stream().map(BatchRunner::_quote).collect(Collectors.joining(","));
+    }
+
+    private File _merge(LinkedHashMap<File, Boolean> status) {
+        LinkedHashSet<String> header = new LinkedHashSet<>(Arrays.asList("Simulation", "Status"));
+        ArrayList<LinkedHashMap<String, String>> rows = new ArrayList<>();
+        for (File sim : status.keySet()) {
+            LinkedHashMap<String, String> row = new LinkedHashMap<>();
+            row.put("Simulation", sim.getName());
+            row.put("Status", status.get(sim) ? "OK" : "FAILED");
+            File csv = _output(sim);
+            if (status.get(sim)) {
+                try (BufferedReader br = new BufferedReader(new FileReader(csv))) {
+                    List<String> keys = _split(br.readLine());
+                    List<String> values = _split(br.readLine());
+                    for (int i = 0; i < keys.size(); i++) {
+                        row.put(keys.get(i), (i < values.size()) ? values.get(i) : "");
+                    }
+                } catch (IOException | NullPointerException ex) {
+                    row.put("Status", "FAILED");
+                }
+            }
+            header.addAll(row.keySet());
+            rows.add(row);
+        }
+        File f = new File(_outDir, RESULTS);
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(f))) {
+            bw.write(_join(header));
+            bw.newLine();
+            for (LinkedHashMap<String, String> row : rows) {
+                bw.write(_join(header.stream().map(k -> row.getOrDefault(k, ""))
+                        .collect(Collectors.toList())));
+                bw.newLine();
+            }
+        } catch (IOException ex) {
+            _say("Could not write results: %s", ex.getMessage());
+            return null;
+        }
+        _say("Results: %s", f);
+        return f;
+    }
+
+    private File _output(File sim) {
+        return new File(_outDir, _baseName(sim) + ".csv");
+    }
+
+    private static String _quote(String s) {
+        if (s.contains(",") || s.contains("\"")) {
+            return "\"" + s.replace("\"", "\"\"") + "\"";
+        }
+        return s;
+    }
+
+    private boolean _run(File sim, File macro, int attempt) {
+        File out = _output(sim);
+        out.delete();
+        ArrayList<String> cmd = new ArrayList<>();
+        for (String arg : _command) {
+            cmd.add(arg.replace("{sim}", sim.getAbsolutePath())
+                    .replace("{macro}", macro.getAbsolutePath())
+                    .replace("{out}", out.getAbsolutePath())
+                    .replace("{np}", String.valueOf(_np))
+                    .replace("{classpath}", _classpath));
+        }
+        File log = new File(_outDir, String.format("%s_%d.log", _baseName(sim), attempt));
+        ProcessBuilder pb = new ProcessBuilder(cmd).directory(sim.getAbsoluteFile().getParentFile())
+                .redirectErrorStream(true).redirectOutput(log);
+        pb.environment().put("MACROUTILS_BATCH_OUTPUT", out.getAbsolutePath());
+        try {
+            Process p = pb.start();
+            if (_timeout > 0 && !p.waitFor(_timeout, TimeUnit.MILLISECONDS)) {
+                //-- The launcher script only starts the solver. Kill the whole process tree.
+                List<ProcessHandle> tree = p.descendants().collect(Collectors.toList());
+                tree.forEach(ProcessHandle::destroyForcibly);
+                p.destroyForcibly();
+                p.waitFor();
+                _say("Timed out: %s", sim.getName());
+                return false;
+            }
+            return p.waitFor() == 0 && out.isFile();
+        } catch (IOException ex) {
+            _say("Could not start worker for %s: %s", sim.getName(), ex.getMessage());
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean _runWithRetries(File sim, File macro) {
+        for (int attempt = 0; attempt <= _retries; attempt++) {
+            if (attempt > 0) {
+                _say("Restarting (%d/%d): %s", attempt, _retries, sim.getName());
+            }
+            if (_run(sim, macro, attempt)) {
+                _say("Done: %s", sim.getName());
+                return true;
+            }
+        }
+        _say("Failed: %s", sim.getName());
+        return false;
+    }
+
+    private static synchronized void _say(String format, Object... args) {
+        System.out.println(String.format("[BatchRunner] " + format, args));
+    }
+
+    private static List<String> _split(String line) {
+        ArrayList<String> fields = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"' && quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                sb.append(c);
+                i++;
+            } else if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                fields.add(sb.toString());
+                sb.setLength(0);
+            } else {
+                sb.append(c);
+            }
+        }
+        fields.add(sb.toString());
+        return fields;
+    }
+
+    /**
+     * Writes the worker macro. The per-file CSV is passed by the runner in the environment.
+     */
+    private File _writeWorker() {
+        File f = new File(_outDir, _WORKER + ".java");
+        List<String> lines = Arrays.asList(
+                "import java.io.File;",
+                "import macroutils.MacroUtils;",
+                "import macroutils.templates.simtools.BatchRunner;",
+                "import star.common.StarMacro;",
+                "",
+                "public class " + _WORKER + " extends StarMacro {",
+                "",
+                "    @Override",
+                "    public void execute() {",
+                "        MacroUtils mu = new MacroUtils(getActiveSimulation());",
+                "        File out = new File(System.getenv(\"MACROUTILS_BATCH_OUTPUT\"));",
+                "        BatchRunner.work(mu, new " + _workflow.replace('$', '.') + "(), out);",
+                "    }",
+                "",
+                "}");
+        try {
+            Files.write(f.toPath(), lines);
+        } catch (IOException ex) {
+            _say("Could not write worker macro: %s", ex.getMessage());
+            return null;
+        }
+        return f;
+    }
+
+    /**
+     * A post-processing workflow applied to every Simulation file.
+     */
+    public interface Workflow {
+
+        /**
+         * Runs the workflow on the active Simulation, e.g., writes pictures and collects Report
+         * values.
+         *
+         * @param mu given MacroUtils object.
+         * @return The results as column names and values, in order.
+         */
+        LinkedHashMap<String, String> run(MacroUtils mu);
+
+    }
+
+}
@@ -0,0 +1,196 @@
+package macroutils.templates.simtools;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import macroutils.MacroUtils;
+import macroutils.UserDeclarations;
+import macroutils.getter.MainGetter;
+import star.base.report.Monitor;
+import star.common.ResidualMonitor;
+import star.common.Simulation;
+import star.common.StarPlot;
+import star.common.graph.DataSet;
+import star.coupledflow.CoupledImplicitSolver;
+
+/**
+ * This class will ramp the CFL number of the Coupled Implicit Solver based on the Residuals,
+ * instead of running with a fixed CFL or ramping it by hand in stages.
+ *
+ * Every iteration it will perform the following actions:
+ * <ul>
+ * <li>Take the largest latest Residual, in log scale, from the Residual Plot;
+ * <li>Grow the CFL geometrically when the Residual decreased;
+ * <li>Back off when the Residual spiked above a given factor of the previous iteration;
+ * <li>Cap the CFL between the initial and the maximum values.
+ * </ul>
+ *
+ * The run stops when any enabled stopping criteria is satisfied. See
+ * {@link macroutils.checker.CheckIs#stoppingCriteriaSatisfied}.
+ *
+ * The CFL history is written to a CSV log next to the Simulation file as the run goes, followed
+ * by the estimated number of iterations saved. The estimate assumes the pseudo time advanced per
+ * iteration is proportional to the CFL, i.e., the same progress at the initial CFL would need the
+ * sum of all CFL values divided by the initial CFL iterations.
+ *
+ * <b>Application</b>: coupled implicit compressible cases that diverge with a high CFL from the
+ * start but converge slowly with a low CFL.
+ *
+ * @since October of 2026
+ * @author Fabio Kasper
+ */
+public class CFLRamp {
+
+    private double _backOff = 0.5;
+    private final double _cfl0;
+    private final double _cflMax;
+    private final MainGetter _get;
+    private double _growth = 1.1;
+    private final MacroUtils _mu;
+    private final Simulation _sim;
+    private double _spike = 2.0;
+    private final UserDeclarations _ud;
+
+    /**
+     * Main constructor for this class.
+     *
+     * @param m      given MacroUtils object.
+     * @param cfl0   given initial CFL number.
+     * @param cflMax given maximum CFL number.
+     */
+    public CFLRamp(MacroUtils m, double cfl0, double cflMax) {
+        _mu = m;
+        _sim = m.getSimulation();
+        _ud = _mu.userDeclarations;
+        _get = _mu.get;
+        _cfl0 = cfl0;
+        _cflMax = Math.max(cfl0, cflMax);
+    }
+
+    /**
+     * Runs the Simulation, updating the CFL every iteration, until any enabled stopping criteria
+     * is satisfied.
+     *
+     * @return The CSV log file. Null if nothing was run.
+     */
+    public File execute() {
+        _mu.io.say.action("Running with a Residual driven CFL ramp", true);
+        _mu.io.say.value("Initial CFL", _cfl0, true);
+        _mu.io.say.value("Maximum CFL", _cflMax, true);
+        if (!_mu.check.has.coupledImplicit()) {
+            _mu.io.say.msg("Not a Coupled Solver simulation.");
+            return null;
+        }
+        ArrayList<ResidualMonitor> arm = new ArrayList<>();
+        for (Monitor mon : _get.monitors.all(false)) {
+            if (_mu.check.is.residual(mon)) {
+                arm.add((ResidualMonitor) mon);
+            }
+        }
+        _mu.io.say.objects(arm, "Residual Monitors", true);
+        ArrayList<DataSet> ads = new ArrayList<>();
+        for (StarPlot sp : _get.plots.all(false)) {
+            if (_mu.check.is.residual(sp)) {
+                ads.addAll(sp.getDataSetCollection());
+            }
+        }
+        if (arm.isEmpty() || ads.isEmpty()) {
+            _mu.io.say.msg("No Residual Monitors or Residual Plots found.");
+            return null;
+        }
+        String name = _get.strings.friendlyFilename(_ud.simTitle) + "_CFL.csv";
+        File f = new File(_ud.simPath, name);
+        _mu.io.say.value("CFL Log", f.toString(), true, true);
+        CoupledImplicitSolver cis = _get.solver.byClass(CoupledImplicitSolver.class);
+        double cfl = _cfl0;
+        double sumCFL = 0.0;
+        double prev = Double.NaN;
+        int iter0 = _get.solver.iteration();
+        int backOffs = 0;
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(f))) {
+            _write(bw, "Iteration,CFL,Max Residual,Action");
+            while (!_mu.check.is.stoppingCriteriaSatisfied()) {
+                cis.setCFL(cfl);
+                int iter = _get.solver.iteration();
+                _sim.getSimulationIterator().step(1);
+                if (_get.solver.iteration() == iter) {
+                    break;
+                }
+                sumCFL += cfl;
+                double res = _maxResidual(ads);
+                String action = "Hold";
+                if (Double.isNaN(prev) || res <= prev) {
+                    cfl = Math.min(_cflMax, cfl * _growth);
+                    action = "Grow";
+                } else if (res > prev + Math.log10(_spike)) {
+                    cfl = Math.max(_cfl0, cfl * _backOff);
+                    action = "Back Off";
+                    backOffs++;
+                }
+                _write(bw, String.format("%d,%g,%g,%s", _get.solver.iteration(), cis.getCFL(),
+                        Math.pow(10.0, res), action));
+                prev = res;
+            }
+            int n = _get.solver.iteration() - iter0;
+            int saved = (int) Math.round(sumCFL / _cfl0) - n;
+            _write(bw, String.format("# Iterations: %d; Back Offs: %d; Final CFL: %g; Estimated "
+                    + "Iterations Saved: %d", n, backOffs, cis.getCFL(), saved));
+            _mu.io.say.value("Iterations", n, true);
+            _mu.io.say.value("Back Offs", backOffs, true);
+            _mu.io.say.value("Final CFL", cis.getCFL(), true);
+            _mu.io.say.value("Estimated Iterations Saved", saved, true);
+        } catch (IOException ex) {
+            _mu.io.say.msg(true, "Could not write CFL log: %s", ex.getMessage());
+            return null;
+        }
+        _mu.io.say.ok(true);
+        return f;
+    }
+
+    /**
+     * Sets how the CFL is reduced on a Residual spike. Default is a back off factor of 0.5 when
+     * the largest Residual grows more than 2 times from one iteration to the next.
+     *
+     * @param backOff given factor the CFL is multiplied by, between 0 and 1.
+     * @param spike   given Residual growth, from one iteration to the next, considered a spike.
+     */
+    public void setBackOff(double backOff, double spike) {
+        _backOff = backOff;
+        _spike = Math.max(1.0, spike);
+    }
+
+    /**
+     * Sets the geometric growth factor of the CFL while the Residuals decrease. Default is 1.1.
+     *
+     * @param growth given factor the CFL is multiplied by, larger than 1.
+     */
+    public void setGrowth(double growth) {
+        _growth = growth;
+    }
+
+    /**
+     * Largest last Residual, in log10 scale, taken from the last point of the Residual Plot data
+     * sets. The Monitor histories are not copied, since they grow every iteration. Residuals are
+     * normalized or not according to each Monitor.
+     */
+    private double _maxResidual(ArrayList<DataSet> ads) {
+        double max = -Double.MAX_VALUE;
+        for (DataSet ds : ads) {
+            int n = ds.getRowCount();
+            double y = (n > 0) ? ds.getYValue(n - 1) : 0.0;
+            if (y > 0.0) {
+                max = Math.max(max, Math.log10(y));
+            }
+        }
+        return max;
+    }
+
+    private void _write(BufferedWriter bw, String line) throws IOException {
+        bw.write(line);
+        bw.newLine();
+        bw.flush();
+    }
+
+}
@@ -0,0 +1,284 @@
+package macroutils.templates.simtools;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import macroutils.MacroUtils;
+import macroutils.UserDeclarations;
+import macroutils.getter.MainGetter;
+import star.base.neo.DoubleVector;
+import star.base.neo.NamedObject;
+import star.base.neo.NeoProperty;
+import star.common.GeometryPart;
+import star.common.PartSurface;
+import star.meshing.AutoMeshOperation;
+import star.meshing.CustomMeshControl;
+import star.meshing.PartsTargetSurfaceSize;
+import star.meshing.PartsTargetSurfaceSizeOption;
+import star.meshing.SurfaceCustomMeshControl;
+import star.prismmesher.NumPrismLayers;
+
+/**
+ * This class will predict the volume cell count of an Automated Mesh Operation for a given Base
+ * Size and solve for the Base Size that hits a target cell budget, before any volume mesh is
+ * generated.
+ *
+ * The estimate is built from:
+ * <ul>
+ * <li>Part Surfaces areas and extents (one statistics pass);
+ * <li>Target surface size, Custom Surface Controls and Prism Layers settings;
+ * <li>Optionally, the face count from a cheap surface mesh only pass;
+ * <li>A calibration factor learned from previous predictions versus actual cell counts, which are
+ * kept in a history file next to the Simulation file.
+ * </ul>
+ *
+ * <b>Application</b>: avoid guessing the Base Size and paying a full volume mesh per attempt.
+ *
+ * @since October of 2026
+ * @author Fabio Kasper
+ */
+public class CellCountPredictor {
+
+    /**
+     * Rough estimate of solver memory, in GB, per million cells.
+     */
+    public static final double GB_PER_MILLION_CELLS = 1.0;
+
+    private final AutoMeshOperation _amo;
+    private double _area = 0.0;
+    private final HashMap<Double, Double> _customAreas = new HashMap<>();
+    private final MainGetter _get;
+    private final File _historyFile;
+    private final MacroUtils _mu;
+    private double _numPrismLayers = 0.0;
+    private double _surfaceFaces = 0.0;
+    private double _surfaceFacesBaseSize = 0.0;
+    private double _targetSize = 100.0;
+    private final UserDeclarations _ud;
+    private double _volume = 0.0;
+
+    /**
+     * Main constructor for this class.
+     *
+     * @param m   given MacroUtils object.
+     * @param amo given Automated Mesh Operation.
+     */
+    public CellCountPredictor(MacroUtils m, AutoMeshOperation amo) {
+
+        _mu = m;
+        _amo = amo;
+        _ud = _mu.userDeclarations;
+        _get = _mu.get;
+
+        _historyFile = new File(_ud.simPath, "CellCountPredictor_" + amo.getPresentationName()
+                .replace(" ", "_") + ".csv");
+
+        _collectGeometry();
+        _collectSettings();
+
+    }
+
+    /**
+     * Solves for the Base Size that hits a target cell count. See {@link #predict}.
+     *
+     * @param targetCells given target number of volume cells.
+     * @return The Base Size, in meters.
+     */
+    public double baseSizeFor(long targetCells) {
+        double k = getCalibration();
+        double lo = 1e-6, hi = 10.0 * Math.cbrt(_volume) + 1e-6;
+        for (int i = 0; i < 100; i++) {
+            double mid = Math.sqrt(lo * hi);
+            if (k * _predictRaw(mid) > targetCells) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        return hi;
+    }
+
+    /**
+     * Sets the Base Size of the Automated Mesh Operation to hit a target cell count and prints
+     * the expected cell count and memory.
+     *
+     * @param targetCells given target number of volume cells.
+     */
+    public void execute(long targetCells) {
+        _mu.io.say.action("Sizing the Base Size for a Cell Budget", true);
+        _mu.io.say.object(_amo, true);
+        _mu.io.say.msg(true, "Target Cell Count: %,d.", targetCells);
+        _mu.io.say.value("Calibration Factor", getCalibration(), true);
+        double bs = baseSizeFor(targetCells);
+        long cells = predict(bs);
+        _mu.io.say.value("Predicted Base Size", bs, _ud.unit_m, true);
+        _mu.io.say.msg(true, "Predicted Cell Count: %,d.", cells);
+        _mu.io.say.msg(true, "Predicted Memory: %.1f GB.", memory(cells));
+        _mu.set.mesh.baseSize(_amo, bs, _ud.unit_m, true);
+    }
+
+    /**
+     * Gets the calibration factor learned from the actual cell counts recorded so far. See
+     * {@link #record}.
+     *
+     * @return The calibration factor. 1 if nothing has been recorded.
+     */
+    public double getCalibration() {
+        List<double[]> history = _readHistory();
+        if (history.isEmpty()) {
+            return 1.0;
+        }
+        double sumLog = 0.0;
+        for (double[] row : history) {
+            sumLog += Math.log(row[2] / row[1]);
+        }
+        return Math.exp(sumLog / history.size());
+    }
+
+    /**
+     * Gets the estimated solver memory for a number of cells. See {@link #GB_PER_MILLION_CELLS}.
+     *
+     * @param cells given number of cells.
+     * @return The memory in GB.
+     */
+    public double memory(long cells) {
+        return GB_PER_MILLION_CELLS * cells / 1e6;
+    }
+
+    /**
+     * Predicts the volume cell count for a given Base Size.
+     *
+     * @param baseSize given Base Size, in meters.
+     * @return The estimated number of volume cells.
+     */
+    public long predict(double baseSize) {
+        return Math.round(getCalibration() * _predictRaw(baseSize));
+    }
+
+    /**
+     * Records the actual cell count of the current volume mesh against the prediction for the
+     * current Base Size. Later predictions are calibrated with all records kept.
+     */
+    public void record() {
+        _mu.io.say.action("Recording Cell Count Prediction Error", true);
+        if (!_mu.check.has.volumeMesh()) {
+            _mu.io.say.msg("No volume mesh found. Nothing to record.");
+            return;
+        }
+        double bs = _get.mesh.baseSize(_amo, false).getInternalValue();
+        double predicted = predict(bs);
+        double actual = _get.mesh.fvr().getCellCount();
+        _mu.io.say.msg(true, "Predicted Cell Count: %,.0f.", predicted);
+        _mu.io.say.msg(true, "Actual Cell Count: %,.0f.", actual);
+        _mu.io.say.percentage("Prediction Error", 100.0 * (predicted - actual) / actual, true);
+        ArrayList<String> lines = new ArrayList<>();
+        _readHistory().forEach(row -> lines.add(_getRow(row)));
+        lines.add(_getRow(new double[]{ bs, _predictRaw(bs), actual }));
+        _mu.io.write.data(_historyFile, lines, false);
+        _mu.io.say.ok(true);
+    }
+
+    /**
+     * Runs a surface mesh only pass with the current Base Size and uses its face count in the
+     * next predictions instead of estimating it from the areas.
+     */
+    public void surfaceMeshPass() {
+        _mu.update.surfaceMesh();
+        _surfaceFaces = _get.mesh.latestSurfaceDescriptionSource().getFaceCount();
+        _surfaceFacesBaseSize = _get.mesh.baseSize(_amo, false).getInternalValue();
+        _mu.io.say.msg(true, "Surface Face Count: %,.0f.", _surfaceFaces);
+    }
+
+    private void _collectGeometry() {
+        ArrayList<PartSurface> aps = new ArrayList<>();
+        for (NamedObject no : _amo.getInputGeometryObjects().getObjects()) {
+            if (no instanceof GeometryPart) {
+                aps.addAll(_get.partSurfaces.all((GeometryPart) no, false));
+            }
+        }
+        HashMap<PartSurface, NeoProperty> stats = _get.partSurfaces.statistics(aps);
+        if (stats == null) {
+            return;
+        }
+        DoubleVector delta = stats.get(null).getDoubleVector("XYZComponents");
+        _volume = delta.get(0) * delta.get(1) * delta.get(2);
+        _area = stats.get(null).getDouble("TotalFaceArea");
+        for (CustomMeshControl cmc : _amo.getCustomMeshControls().getObjectsOf(
+                SurfaceCustomMeshControl.class)) {
+            if (cmc.getCustomConditions().get(PartsTargetSurfaceSizeOption.class)
+                    .getSelectedElement() != PartsTargetSurfaceSizeOption.Type.CUSTOM) {
+                continue;
+            }
+            double tgt = cmc.getCustomValues().get(PartsTargetSurfaceSize.class)
+                    .getRelativeSizeScalar().getInternalValue();
+            for (Object o : cmc.getGeometryObjects().getObjects()) {
+                if (stats.containsKey(o)) {
+                    double area = stats.get(o).getDouble("TotalFaceArea");
+                    _customAreas.merge(tgt, area, Double::sum);
+                }
+            }
+        }
+    }
+
+    private void _collectSettings() {
+        _targetSize = _get.mesh.targetRelativeSize(_amo, false).getRelativeSizeScalar()
+                .getInternalValue();
+        if (_mu.check.has.prismLayerMesher(_amo)) {
+            _numPrismLayers = _amo.getDefaultValues().get(NumPrismLayers.class)
+                    .getNumLayersValue().getValue();
+        }
+    }
+
+    private String _getRow(double[] row) {
+        return String.format("%.9e,%.9e,%.9e", row[0], row[1], row[2]);
+    }
+
+    /**
+     * Uncalibrated model: core cells filling the bounding box, a few transition layers from the
+     * surface size up to the Base Size and the Prism Layers on top of the surface faces.
+     */
+    private double _predictRaw(double baseSize) {
+        double hs = baseSize * _targetSize / 100.0;
+        double faces = 0.0;
+        if (_surfaceFaces > 0) {
+            faces = _surfaceFaces * Math.pow(_surfaceFacesBaseSize / baseSize, 2);
+        } else {
+            double area = _area;
+            for (double tgt : _customAreas.keySet()) {
+                double customArea = _customAreas.get(tgt);
+                double hc = baseSize * tgt / 100.0;
+                faces += customArea / (hc * hc);
+                area -= customArea;
+            }
+            faces += Math.max(0.0, area) / (hs * hs);
+        }
+        double transitionLayers = 2.0 * Math.max(1.0, Math.log(baseSize / hs) / Math.log(2.0));
+        double core = _volume / Math.pow(baseSize, 3);
+        return core + faces * (transitionLayers + _numPrismLayers);
+    }
+
+    private List<double[]> _readHistory() {
+        List<double[]> history = new ArrayList<>();
+        if (!_historyFile.isFile()) {
+            return history;
+        }
+        try (BufferedReader br = new BufferedReader(new FileReader(_historyFile))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] values = line.split(",");
+                if (values.length == 3) {
+                    history.add(new double[]{ Double.parseDouble(values[0]),
+                        Double.parseDouble(values[1]), Double.parseDouble(values[2]) });
+                }
+            }
+        } catch (IOException | NumberFormatException ex) {
+            _mu.io.say.msg(true, "Could not read history file: %s", ex.getMessage());
+        }
+        return history;
+    }
+
+}
@@ -0,0 +1,230 @@
+package macroutils.templates.simtools;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import macroutils.MacroUtils;
+import macroutils.UserDeclarations;
+import macroutils.getter.MainGetter;
+import star.common.PhysicalTimeStoppingCriterion;
+import star.common.Simulation;
+
+/**
+ * This class will run a Simulation and save checkpoints based on wall clock time and measured
+ * save cost, instead of the fixed iteration or timestep interval of the Auto Save.
+ *
+ * In addition, it will perform the following actions:
+ * <ul>
+ * <li>Measure the duration and file size of every save and the wall clock time per step;
+ * <li>Schedule the next save so the work lost after a crash stays under a target time, while the
+ * time spent saving stays under a budget, as a fraction of the total time. When both can not be
+ * met the budget wins, i.e., the interval is stretched to the save time divided by the budget;
+ * <li>Delete older checkpoints following a rolling or an exponential thinning retention.
+ * </ul>
+ *
+ * The Auto Save is not changed. Disable it when using this class. See
+ * {@link macroutils.setter.MainSetter#autoSave}.
+ *
+ * <b>Application</b>: large cases where a save takes minutes and a fixed interval either wastes
+ * I/O or risks hours of work.
+ *
+ * @since October of 2026
+ * @author Fabio Kasper
+ */
+public class CheckpointPolicy {
+
+    /**
+     * Checkpoint retention schemes.
+     */
+    public enum Retention {
+        /**
+         * Keep the latest checkpoints only.
+         */
+        ROLLING,
+        /**
+         * Keep the latest checkpoints and thin out the older ones, so their spacing doubles with
+         * age. The number of files kept grows with the logarithm of the checkpoints saved.
+         */
+        EXPONENTIAL
+    }
+
+    private final double _budget;
+    private final List<Checkpoint> _checkpoints = new ArrayList<>();
+    private double _dt = 0.0;
+    private final MainGetter _get;
+    private int _keep = 3;
+    private final double _maxLost;
+    private final MacroUtils _mu;
+    private Retention _retention = Retention.ROLLING;
+    private double _saveTime = 0.0;
+    private final Simulation _sim;
+    private double _stepTime = 0.0;
+    private final UserDeclarations _ud;
+
+    /**
+     * Main constructor for this class.
+     *
+     * @param m       given MacroUtils object.
+     * @param maxLost given target of work lost after a crash, in wall clock minutes.
+     * @param budget  given maximum time spent saving, as a fraction of the total. E.g.: 0.05 for
+     *                5%.
+     */
+    public CheckpointPolicy(MacroUtils m, double maxLost, double budget) {
+        _mu = m;
+        _sim = m.getSimulation();
+        _ud = _mu.userDeclarations;
+        _get = _mu.get;
+        _maxLost = 60.0 * maxLost;
+        _budget = Math.max(1e-3, budget);
+    }
+
+    /**
+     * Runs the Simulation, saving checkpoints according to the policy, until any enabled stopping
+     * criteria is satisfied. A last checkpoint is saved at the end. See
+     * {@link macroutils.checker.CheckIs#stoppingCriteriaSatisfied}.
+     *
+     * @return The checkpoint files kept.
+     */
+    public ArrayList<File> execute() {
+        _mu.io.say.action("Running with a Checkpoint Policy", true);
+        _mu.io.say.value("Target Lost Work [min]", _maxLost / 60.0, true);
+        _mu.io.say.percentage("Save Time Budget", 100.0 * _budget, true);
+        _mu.io.say.value("Retention", _retention.toString(), true, true);
+        _mu.io.say.value("Checkpoints Kept", _keep, true);
+        double t0 = _now(), running = 0.0;
+        double lastSave = t0;
+        int chunk = 1;
+        while (!_mu.check.is.stoppingCriteriaSatisfied()) {
+            int steps = _get.solver.steps();
+            double time = _get.solver.physicalTime();
+            double ts = _now();
+            _sim.getSimulationIterator().step(chunk);
+            int done = _get.solver.steps() - steps;
+            if (done == 0) {
+                break;
+            }
+            _dt = (_get.solver.physicalTime() - time) / done;
+            running += _now() - ts;
+            double perStep = (_now() - ts) / done;
+            _stepTime = (_stepTime == 0.0) ? perStep : 0.7 * _stepTime + 0.3 * perStep;
+            double interval = interval();
+            double elapsed = _now() - lastSave;
+            if (elapsed >= interval) {
+                _save();
+                lastSave = _now();
+                elapsed = 0.0;
+            }
+            chunk = _nextChunk((interval - elapsed) / _stepTime);
+        }
+        _save();
+        double total = _now() - t0;
+        double saving = _checkpoints.stream().mapToDouble(c -> c.duration).sum();
+        _mu.io.say.value("Checkpoints Saved", _checkpoints.size(), true);
+        _mu.io.say.value("Total Wall Time [min]", total / 60.0, true);
+        _mu.io.say.value("Solver Wall Time [min]", running / 60.0, true);
+        _mu.io.say.percentage("Time Spent Saving", 100.0 * saving / Math.max(total, 1e-9), true);
+        ArrayList<File> kept = new ArrayList<>();
+        _checkpoints.stream().filter(c -> c.file.isFile()).forEach(c -> kept.add(c.file));
+        kept.forEach(f -> _mu.io.say.msg(true, "  - Kept: \"%s\".", f.getName()));
+        _mu.io.say.ok(true);
+        return kept;
+    }
+
+    /**
+     * Gets the current wall clock interval between saves, based on the measured save time. See
+     * {@link CheckpointPolicy}.
+     *
+     * @return The interval in seconds.
+     */
+    public double interval() {
+        if (_saveTime == 0.0) {
+            return _maxLost;
+        }
+        return Math.max(_maxLost, _saveTime / _budget);
+    }
+
+    /**
+     * Sets the checkpoint retention scheme. Default is {@link Retention#ROLLING} keeping 3 files.
+     *
+     * @param r    given Retention.
+     * @param keep given number of latest checkpoints always kept. At least 1.
+     */
+    public void setRetention(Retention r, int keep) {
+        _retention = r;
+        _keep = Math.max(1, keep);
+    }
+
+    /**
+     * Does the retention scheme keep a checkpoint?
+     *
+     * @param i given checkpoint number, starting at 1.
+     * @param n given number of checkpoints saved so far.
+     */
+    private boolean _isKept(int i, int n) {
+        int age = n - i;
+        if (age < _keep) {
+            return true;
+        }
+        if (_retention == Retention.ROLLING) {
+            return false;
+        }
+        int spacing = Integer.highestOneBit(age - _keep + 1);
+        return i % spacing == 0;
+    }
+
+    /**
+     * Steps until the next save, capped so a chunk does not go past Maximum Steps nor, in
+     * unsteady runs, Maximum Physical Time.
+     */
+    private int _nextChunk(double steps) {
+        double n = Math.min(steps, _get.solver.stepsLeft());
+        if (_mu.check.is.unsteady()) {
+            PhysicalTimeStoppingCriterion ptsc = _get.solver.stoppingCriteria_MaxTime();
+            if (ptsc != null && ptsc.getIsUsed() && _dt > 0.0) {
+                double left = ptsc.getMaximumTime().getInternalValue() - _get.solver.physicalTime();
+                n = Math.min(n, Math.ceil(left / _dt));
+            }
+        }
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, n));
+    }
+
+    private double _now() {
+        return System.nanoTime() / 1e9;
+    }
+
+    private void _save() {
+        String name = String.format("%s_ckpt_%06d.sim",
+                _get.strings.friendlyFilename(_ud.simTitle), _get.solver.iteration());
+        File f = new File(_ud.simPath, name);
+        if (!_checkpoints.isEmpty() && _checkpoints.get(_checkpoints.size() - 1).file.equals(f)) {
+            return;
+        }
+        double ts = _now();
+        _sim.saveState(f.toString());
+        Checkpoint c = new Checkpoint(f, _now() - ts);
+        _checkpoints.add(c);
+        _saveTime = (_saveTime == 0.0) ? c.duration : 0.5 * _saveTime + 0.5 * c.duration;
+        _mu.io.say.msg(true, "Checkpoint \"%s\": %.1f s; %.1f MB; next in %.1f min.", name,
+                c.duration, f.length() / 1048576.0, interval() / 60.0);
+        int n = _checkpoints.size();
+        for (int i = 1; i <= n; i++) {
+            File old = _checkpoints.get(i - 1).file;
+            if (!_isKept(i, n) && old.isFile() && !old.delete()) {
+                _mu.io.say.msg(true, "Could not delete \"%s\".", old.getName());
+            }
+        }
+    }
+
+    private static class Checkpoint {
+
+        private final double duration;
+        private final File file;
+
+        private Checkpoint(File f, double seconds) {
+            file = f;
+            duration = seconds;
+        }
+
+    }
+
+}
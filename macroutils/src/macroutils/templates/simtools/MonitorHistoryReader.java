@@ -0,0 +1,191 @@
+package macroutils.templates.simtools;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class will read the binary files written by {@link MonitorHistoryRecorder} by memory
+ * mapping them.
+ *
+ * A truncated trailing chunk, e.g., from a crashed run, is ignored and all complete chunks before
+ * it are still readable.
+ *
+ * <b>Application</b>: post-processing of long Monitor histories outside the Simulation.
+ *
+ * @since October of 2026
+ * @author Fabio Kasper
+ */
+public class MonitorHistoryReader {
+
+    private final List<String> _columns = new ArrayList<>();
+    private final List<Integer> _chunkPositions = new ArrayList<>();
+    private final List<Integer> _chunkRows = new ArrayList<>();
+    private final ByteBuffer _data;
+    private final File _file;
+    private int _rows = 0;
+    private boolean _truncated = false;
+    private int _validLength = 0;
+
+    /**
+     * Main constructor for this class.
+     *
+     * @param file given binary file written by {@link MonitorHistoryRecorder}.
+     * @throws IOException if the file can not be read or it is not a valid history file. An
+     *                     {@link EOFException} if the header itself is incomplete.
+     */
+    public MonitorHistoryReader(File file) throws IOException {
+        this(file, true);
+    }
+
+    /**
+     * Constructor used by {@link MonitorHistoryRecorder}. Without mapping, the file is read into
+     * memory and nothing holds it open afterwards, e.g., it can be truncated on Windows.
+     *
+     * @param file given binary file written by {@link MonitorHistoryRecorder}.
+     * @param map  option to memory map the file.
+     * @throws IOException if the file can not be read or it is not a valid history file.
+     */
+    MonitorHistoryReader(File file, boolean map) throws IOException {
+        _file = file;
+        try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (map) {
+                _data = fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
+            } else {
+                _data = ByteBuffer.allocate((int) fc.size());
+                while (_data.hasRemaining() && fc.read(_data) > 0) {
+                    continue;
+                }
+                _data.flip();
+            }
+        }
+        _data.order(ByteOrder.LITTLE_ENDIAN);
+        _readHeader();
+        _readChunks();
+    }
+
+    /**
+     * Gets all values from a column.
+     *
+     * @param index given column index. See {@link #getColumns}.
+     * @return An array of doubles.
+     */
+    public double[] column(int index) {
+        double[] values = new double[_rows];
+        int offset = 0;
+        for (int i = 0; i < _chunkPositions.size(); i++) {
+            int rows = _chunkRows.get(i);
+            int pos = _chunkPositions.get(i) + Double.BYTES * rows * index;
+            _data.slice(pos, Double.BYTES * rows).order(ByteOrder.LITTLE_ENDIAN)
+                    .asDoubleBuffer().get(values, offset, rows);
+            offset += rows;
+        }
+        return values;
+    }
+
+    /**
+     * Gets all values from a column.
+     *
+     * @param name given column name. See {@link #getColumns}.
+     * @return An array of doubles. Null if the column is not found.
+     */
+    public double[] column(String name) {
+        int index = _columns.indexOf(name);
+        return (index < 0) ? null : column(index);
+    }
+
+    /**
+     * Gets the column names available in the file.
+     *
+     * @return A List of Strings.
+     */
+    public List<String> getColumns() {
+        return new ArrayList<>(_columns);
+    }
+
+    /**
+     * Gets the number of complete rows (samples) available in the file.
+     *
+     * @return The number of rows.
+     */
+    public int getRows() {
+        return _rows;
+    }
+
+    /**
+     * Gets the length, in bytes, of the readable portion of the file, i.e., header plus all
+     * complete chunks.
+     *
+     * @return The length in bytes.
+     */
+    public int getValidLength() {
+        return _validLength;
+    }
+
+    /**
+     * Was a truncated chunk found at the end of the file? Typical of a crashed run.
+     *
+     * @return True or False.
+     */
+    public boolean isTruncated() {
+        return _truncated;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d rows x %d columns %s%s", _file.getName(), _rows,
+                _columns.size(), Arrays.toString(_columns.toArray()),
+                _truncated ? " (truncated)" : "");
+    }
+
+    private void _readChunks() {
+        int chunkBytesPerRow = Double.BYTES * _columns.size();
+        while (_data.remaining() >= Integer.BYTES) {
+            int rows = _data.getInt();
+            long size = (long) chunkBytesPerRow * rows;
+            if (rows <= 0 || size > _data.remaining()) {
+                _truncated = true;
+                break;
+            }
+            _chunkPositions.add(_data.position());
+            _chunkRows.add(rows);
+            _data.position(_data.position() + (int) size);
+            _rows += rows;
+            _validLength = _data.position();
+        }
+        if (_data.hasRemaining()) {
+            _truncated = true;
+        }
+    }
+
+    private void _readHeader() throws IOException {
+        try {
+            if (_data.getInt() != MonitorHistoryRecorder.MAGIC) {
+                throw new IOException("Not a Monitor history file: " + _file);
+            }
+            int version = _data.getInt();
+            if (version != MonitorHistoryRecorder.VERSION) {
+                throw new IOException("Unsupported Monitor history version: " + version);
+            }
+            int nCols = _data.getInt();
+            for (int i = 0; i < nCols; i++) {
+                byte[] name = new byte[_data.getInt()];
+                _data.get(name);
+                _columns.add(new String(name, StandardCharsets.UTF_8));
+            }
+        } catch (BufferUnderflowException | NegativeArraySizeException ex) {
+            throw new EOFException("Incomplete Monitor history header: " + _file);
+        }
+        _validLength = _data.position();
+    }
+
+}
@@ -0,0 +1,284 @@
+package macroutils.templates.simtools;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import macroutils.MacroUtils;
+import macroutils.getter.MainGetter;
+import star.base.report.ReportMonitor;
+import star.common.Simulation;
+
+/**
+ * This class will record the history of Report Monitors into a compact binary file while the
+ * Simulation runs.
+ *
+ * In addition, it will perform the following actions:
+ * <ul>
+ * <li>Sample every given Monitor at a fixed step frequency;
+ * <li>Append the samples in blocks (chunks) to the file and fsync it periodically;
+ * </ul>
+ *
+ * File layout is columnar within each chunk: a header holding the column names, followed by
+ * chunks of <i>[rows][column 1 values][column 2 values]...</i>. Use {@link MonitorHistoryReader}
+ * for reading it back, including partial files left behind by a crashed run.
+ *
+ * <b>Application</b>: long transient runs where keeping the full history in memory, or exporting
+ * it all at once at the end, is too expensive.
+ *
+ * @since October of 2026
+ * @author Fabio Kasper
+ */
+public class MonitorHistoryRecorder {
+
+    /**
+     * File signature used by the binary history files.
+     */
+    public static final int MAGIC = 0x4D554D48;
+
+    /**
+     * File format version.
+     */
+    public static final int VERSION = 1;
+
+    private final double[][] _buffer;
+    private FileChannel _channel = null;
+    private final List<String> _columns = new ArrayList<>();
+    private int _chunks = 0;
+    private final File _file;
+    private final int _flushEvery;
+    private final MainGetter _get;
+    private final List<ReportMonitor> _monitors;
+    private final MacroUtils _mu;
+    private int _rows = 0;
+    private final Simulation _sim;
+    private int _syncEvery = 10;
+    private final boolean _unsteady;
+
+    /**
+     * Main constructor for this class.
+     *
+     * @param m          given MacroUtils object.
+     * @param file       given binary file. New samples are appended if it already exists and a
+     *                   truncated trailing chunk is discarded first. A file with an incomplete
+     *                   header is rewritten.
+     * @param monitors   given Report Monitors to be recorded.
+     * @param flushEvery given number of samples kept in memory before appending them to the file.
+     */
+    public MonitorHistoryRecorder(MacroUtils m, File file, List<ReportMonitor> monitors,
+            int flushEvery) {
+
+        _mu = m;
+        _sim = m.getSimulation();
+        _get = _mu.get;
+        _file = file;
+        _monitors = new ArrayList<>(monitors);
+        _flushEvery = Math.max(1, flushEvery);
+        _unsteady = _mu.check.is.unsteady();
+
+        _columns.add("Iteration");
+        if (_unsteady) {
+            _columns.add("Physical Time");
+        }
+        _monitors.forEach(rm -> _columns.add(rm.getPresentationName()));
+        _buffer = new double[_columns.size()][_flushEvery];
+
+    }
+
+    /**
+     * Appends all samples still in memory and closes the file.
+     */
+    public void close() {
+        flush();
+        if (_channel == null) {
+            return;
+        }
+        try {
+            _channel.force(true);
+            _channel.close();
+        } catch (IOException ex) {
+            _mu.io.say.msg(true, "Could not close history file: %s", ex.getMessage());
+        }
+        _channel = null;
+        _mu.io.say.value("History chunks written", _chunks, true);
+    }
+
+    /**
+     * Runs the Simulation for a given number of Iterations or Timesteps while recording the
+     * Monitors. The run is interrupted if a stopping criterion is satisfied. Nothing is run if the
+     * file can not be opened, e.g., its columns do not match the Monitors.
+     *
+     * @param n           given number of iterations or timesteps.
+     * @param sampleEvery given sampling frequency, in iterations or timesteps.
+     */
+    public void execute(int n, int sampleEvery) {
+
+        _mu.io.say.action("Running and recording Monitor histories", true);
+        _mu.io.say.objects(_monitors, "Monitors", true);
+        _mu.io.say.value("History file", _file.toString(), true, true);
+        try {
+            _open();
+        } catch (IOException ex) {
+            _mu.io.say.msg(true, "Could not open history file: %s", ex.getMessage());
+            return;
+        }
+
+        int step = Math.max(1, sampleEvery);
+        for (int i = 0; i < n; i += step) {
+            int iter0 = _get.solver.iteration();
+            _sim.getSimulationIterator().step(Math.min(step, n - i));
+            if (_get.solver.iteration() == iter0) {
+                _mu.io.say.msg("Solver did not advance. Stopping recorder...");
+                break;
+            }
+            sample();
+        }
+        close();
+        _mu.io.say.ok(true);
+
+    }
+
+    /**
+     * Appends all samples still in memory to the file. Data is fsync'ed periodically, see
+     * {@link #setSyncFrequency}. Samples that could not be written are kept in memory and retried
+     * on the next flush.
+     */
+    public void flush() {
+        if (_rows == 0) {
+            return;
+        }
+        try {
+            _open();
+            int nCols = _columns.size();
+            ByteBuffer bb = _newBuffer(Integer.BYTES + Double.BYTES * nCols * _rows);
+            bb.putInt(_rows);
+            for (double[] column : _buffer) {
+                bb.asDoubleBuffer().put(column, 0, _rows);
+                bb.position(bb.position() + Double.BYTES * _rows);
+            }
+            _write(bb);
+            _chunks++;
+            if (_chunks % _syncEvery == 0) {
+                _channel.force(false);
+            }
+        } catch (IOException ex) {
+            _mu.io.say.msg(true, "Could not append to history file: %s", ex.getMessage());
+            //-- Reopening discards a partially written chunk.
+            if (_channel != null) {
+                _closeChannel();
+            }
+            return;
+        }
+        _rows = 0;
+    }
+
+    /**
+     * Gets the column names written to the file.
+     *
+     * @return A List of Strings.
+     */
+    public List<String> getColumns() {
+        return new ArrayList<>(_columns);
+    }
+
+    /**
+     * Takes one sample from all Monitors at the current solver state. Samples are appended to the
+     * file once the buffer is full.
+     */
+    public void sample() {
+        if (_rows == _buffer[0].length) {
+            for (int i = 0; i < _buffer.length; i++) {
+                _buffer[i] = Arrays.copyOf(_buffer[i], 2 * _rows);
+            }
+        }
+        int col = 0;
+        _buffer[col++][_rows] = _get.solver.iteration();
+        if (_unsteady) {
+            _buffer[col++][_rows] = _get.solver.physicalTime();
+        }
+        for (ReportMonitor rm : _monitors) {
+            _buffer[col++][_rows] = _get.reports.value(rm.getReport());
+        }
+        _rows++;
+        if (_rows >= _flushEvery) {
+            flush();
+        }
+    }
+
+    /**
+     * Sets how often, in number of chunks appended, the file is forced to disk. Default is 10.
+     *
+     * @param chunks given frequency.
+     */
+    public void setSyncFrequency(int chunks) {
+        _syncEvery = Math.max(1, chunks);
+    }
+
+    private void _closeChannel() {
+        try {
+            _channel.close();
+        } catch (IOException ex) {
+            _mu.io.say.msg(true, "Could not close history file: %s", ex.getMessage());
+        }
+        _channel = null;
+    }
+
+    private ByteBuffer _newBuffer(int size) {
+        return ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private void _open() throws IOException {
+        if (_channel != null) {
+            return;
+        }
+        long valid = 0;
+        if (_file.isFile() && _file.length() > 0) {
+            try {
+                //-- Not mapped, so the file can be truncated below.
+                MonitorHistoryReader mhr = new MonitorHistoryReader(_file, false);
+                if (!mhr.getColumns().equals(_columns)) {
+                    throw new IOException("Columns do not match the existing file");
+                }
+                _mu.io.say.msg(true, "Appending to existing history file: %s.", mhr.toString());
+                valid = mhr.getValidLength();
+            } catch (EOFException ex) {
+                _mu.io.say.msg(true, "Incomplete header. Rewriting history file: %s.",
+                        _file.getName());
+            }
+        }
+        _channel = FileChannel.open(_file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        _channel.truncate(valid);
+        _channel.position(valid);
+        if (valid > 0) {
+            return;
+        }
+        List<byte[]> names = new ArrayList<>();
+        int size = 3 * Integer.BYTES;
+        for (String s : _columns) {
+            byte[] name = s.getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            size += Integer.BYTES + name.length;
+        }
+        ByteBuffer bb = _newBuffer(size);
+        bb.putInt(MAGIC).putInt(VERSION).putInt(names.size());
+        names.forEach(name -> bb.putInt(name.length).put(name));
+        _write(bb);
+        _channel.force(true);
+    }
+
+    private void _write(ByteBuffer bb) throws IOException {
+        bb.flip();
+        while (bb.hasRemaining()) {
+            _channel.write(bb);
+        }
+    }
+
+}
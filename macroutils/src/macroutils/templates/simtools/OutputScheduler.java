@@ -0,0 +1,215 @@
+package macroutils.templates.simtools;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import macroutils.MacroUtils;
+import star.base.neo.ClientServerObject;
+import star.common.UpdateEvent;
+
+/**
+ * This class will schedule expensive outputs, such as Scene hardcopies, Solution History writes,
+ * Table exports and Auto Save, so they do not fire on the same iteration or timestep.
+ *
+ * In addition, it will perform the following actions:
+ * <ul>
+ * <li>Keep the requested frequency of every output and pick a phase (start offset) for each one,
+ * so the peak combined cost per step is minimized;
+ * <li>Create the Update Events (one per frequency and phase) and assign them to the outputs;
+ * <li>Report the expected per-step output load, with and without staggering.
+ * </ul>
+ *
+ * Frequencies are given in iterations for steady state and in timesteps for unsteady
+ * Simulations.
+ *
+ * <b>Application</b>: avoid iteration time spikes when many outputs coincide, which stall every
+ * rank in parallel runs.
+ *
+ * @since October of 2026
+ * @author Fabio Kasper
+ */
+public class OutputScheduler {
+
+    /**
+     * Maximum number of steps used for evaluating the load, when the least common multiple of the
+     * frequencies is larger than that.
+     */
+    public static final int MAX_HORIZON = 100000;
+
+    private final MacroUtils _mu;
+    private final List<Output> _outputs = new ArrayList<>();
+    private int _start = 0;
+
+    /**
+     * Main constructor for this class.
+     *
+     * @param m given MacroUtils object.
+     */
+    public OutputScheduler(MacroUtils m) {
+        _mu = m;
+    }
+
+    /**
+     * Adds an output to be scheduled.
+     *
+     * @param cso       given STAR-CCM+ ClientServerObject. E.g.: a Scene, Solution History,
+     *                  Table or the Auto Save. See
+     *                  {@link macroutils.setter.SetObjects#updateEvent}.
+     * @param frequency given frequency, in iterations or timesteps.
+     * @param cost      given relative cost of one write. E.g.: an estimate in seconds.
+     */
+    public void add(ClientServerObject cso, int frequency, double cost) {
+        _outputs.add(new Output(cso, Math.max(1, frequency), cost));
+    }
+
+    /**
+     * Computes the phases, creates the Update Events and assigns them to the outputs.
+     *
+     * @return The Update Events created.
+     */
+    public ArrayList<UpdateEvent> execute() {
+        _mu.io.say.action("Scheduling Outputs", true);
+        _mu.io.say.value("Number of Outputs", _outputs.size(), true);
+        schedule();
+        LinkedHashMap<String, ArrayList<ClientServerObject>> groups = new LinkedHashMap<>();
+        for (Output o : _outputs) {
+            String key = o.frequency + "_" + o.phase;
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(o.cso);
+        }
+        boolean isUnsteady = _mu.check.is.unsteady();
+        ArrayList<UpdateEvent> aue = new ArrayList<>();
+        for (String key : groups.keySet()) {
+            String[] fp = key.split("_");
+            int freq = Integer.parseInt(fp[0]);
+            int start = _start + Integer.parseInt(fp[1]);
+            UpdateEvent ue = isUnsteady ? _mu.add.tools.updateEvent_TimeStep(freq, start)
+                    : _mu.add.tools.updateEvent_Iteration(freq, start);
+            ue.setPresentationName(String.format("Outputs Every %d Phase %s", freq, fp[1]));
+            _mu.set.object.updateEvent(groups.get(key), ue, false);
+            aue.add(ue);
+        }
+        summary();
+        _mu.io.say.ok(true);
+        return aue;
+    }
+
+    /**
+     * Gets the expected output load per step over one horizon, using the current phases. See
+     * {@link #schedule}.
+     *
+     * @return An array with the combined cost per step.
+     */
+    public double[] load() {
+        double[] load = new double[_getHorizon()];
+        _outputs.forEach(o -> _addLoad(load, o, o.phase));
+        return load;
+    }
+
+    /**
+     * Computes the phases only, without touching the Simulation. Outputs are placed from the most
+     * to the least expensive, each one at the phase that keeps the peak combined cost lowest.
+     */
+    public void schedule() {
+        int horizon = _getHorizon();
+        double[] load = new double[horizon];
+        List<Output> sorted = new ArrayList<>(_outputs);
+        sorted.sort(Comparator.comparingDouble((Output o) -> -o.cost)
+                .thenComparingInt(o -> o.frequency));
+        for (Output o : sorted) {
+            int best = 0;
+            double bestPeak = Double.MAX_VALUE, bestSum = Double.MAX_VALUE;
+            for (int p = 0; p < Math.min(o.frequency, horizon); p++) {
+                double peak = 0.0, sum = 0.0;
+                for (int t = p; t < horizon; t += o.frequency) {
+                    peak = Math.max(peak, load[t] + o.cost);
+                    sum += load[t];
+                }
+                if (peak < bestPeak || (peak == bestPeak && sum < bestSum)) {
+                    best = p;
+                    bestPeak = peak;
+                    bestSum = sum;
+                }
+            }
+            o.phase = best;
+            _addLoad(load, o, best);
+        }
+    }
+
+    /**
+     * Sets the first iteration or timestep where outputs may start. Default is 0.
+     *
+     * @param start given start iteration or timestep.
+     */
+    public void setStart(int start) {
+        _start = start;
+    }
+
+    /**
+     * Prints the phase of every output and the expected per-step load, compared to all outputs
+     * starting at the same step.
+     */
+    public void summary() {
+        for (Output o : _outputs) {
+            _mu.io.say.msg(true, "  - %s: every %d, phase %d, cost %g.",
+                    _mu.get.strings.name(o.cso), o.frequency, o.phase, o.cost);
+        }
+        double[] unstaggered = new double[_getHorizon()];
+        _outputs.forEach(o -> _addLoad(unstaggered, o, 0));
+        double[] staggered = load();
+        double mean = 0.0;
+        for (double v : staggered) {
+            mean += v;
+        }
+        mean /= staggered.length;
+        _mu.io.say.value("Evaluation Horizon (steps)", staggered.length, true);
+        _mu.io.say.value("Mean Output Load per Step", mean, true);
+        _mu.io.say.value("Peak Output Load per Step (not staggered)", _max(unstaggered), true);
+        _mu.io.say.value("Peak Output Load per Step (staggered)", _max(staggered), true);
+    }
+
+    private void _addLoad(double[] load, Output o, int phase) {
+        for (int t = phase; t < load.length; t += o.frequency) {
+            load[t] += o.cost;
+        }
+    }
+
+    private int _getHorizon() {
+        long lcm = 1;
+        for (Output o : _outputs) {
+            lcm = lcm / _gcd(lcm, o.frequency) * o.frequency;
+            if (lcm > MAX_HORIZON) {
+                return MAX_HORIZON;
+            }
+        }
+        return (int) lcm;
+    }
+
+    private long _gcd(long a, long b) {
+        return (b == 0) ? a : _gcd(b, a % b);
+    }
+
+    private double _max(double[] values) {
+        double max = 0.0;
+        for (double v : values) {
+            max = Math.max(max, v);
+        }
+        return max;
+    }
+
+    private static class Output {
+
+        private final double cost;
+        private final ClientServerObject cso;
+        private final int frequency;
+        private int phase = 0;
+
+        private Output(ClientServerObject cso, int frequency, double cost) {
+            this.cso = cso;
+            this.frequency = frequency;
+            this.cost = cost;
+        }
+
+    }
+
+}
@@ -0,0 +1,223 @@
+package macroutils.templates.simtools;
+
+import java.util.ArrayList;
+import java.util.List;
+import macroutils.MacroUtils;
+import macroutils.StaticDeclarations;
+import macroutils.UserDeclarations;
+import macroutils.getter.MainGetter;
+import star.common.FieldFunction;
+import star.common.Simulation;
+import star.common.Units;
+import star.vis.Displayer;
+import star.vis.Legend;
+import star.vis.LookupTable;
+import star.vis.ScalarDisplayQuantity;
+import star.vis.Scene;
+import star.vis.VisView;
+
+/**
+ * This class will write many pictures out of a single Scene by swapping the scalar quantity,
+ * range, colormap and camera view of one of its Displayers in place, one variant at a time.
+ *
+ * <b>Application</b>: post-processing macros that would otherwise create one Scene per field
+ * function and camera combination, each one holding its own Displayers in server memory.
+ *
+ * @since October of 2026
+ * @author Fabio Kasper
+ */
+public class SceneBatchRenderer {
+
+    private final Displayer _displayer;
+    private final MainGetter _get;
+    private final MacroUtils _mu;
+    private final Scene _scene;
+    private final UserDeclarations _ud;
+    private final List<Variant> _variants = new ArrayList<>();
+
+    /**
+     * Main constructor for this class. The first Displayer in the Scene with a Scalar Display
+     * Quantity, e.g., a Scalar or Streamline Displayer, is the one swapped.
+     *
+     * @param m   given MacroUtils object.
+     * @param scn given base Scene.
+     */
+    public SceneBatchRenderer(MacroUtils m, Scene scn) {
+        _mu = m;
+        _ud = _mu.userDeclarations;
+        _get = _mu.get;
+        _scene = scn;
+        _displayer = _get.scenes.allDisplayers(scn, false).stream()
+                .filter(d -> _get.scenes.scalarDisplayQuantity(d, false) != null)
+                .findFirst().orElse(null);
+    }
+
+    /**
+     * Adds a variant to be rendered. See {@link Variant}.
+     *
+     * @param v given Variant.
+     */
+    public void add(Variant v) {
+        _variants.add(v);
+    }
+
+    /**
+     * Adds every combination of field functions and camera views as variants, with automatic
+     * ranges and current colormap.
+     *
+     * @param aff given List of Field Functions.
+     * @param avv given List of Camera Views.
+     */
+    public void add(List<FieldFunction> aff, List<VisView> avv) {
+        for (FieldFunction ff : aff) {
+            for (VisView vv : avv) {
+                add(new Variant(ff, null, vv));
+            }
+        }
+    }
+
+    /**
+     * Renders all variants using the default picture resolution. See
+     * {@link UserDeclarations#picResX} and {@link UserDeclarations#picResY}.
+     */
+    public void execute() {
+        execute(_ud.picResX, _ud.picResY);
+    }
+
+    /**
+     * Renders all variants. The Scene is left with the settings of the last variant, except for
+     * the camera view, which is restored.
+     *
+     * @param resx given resolution in x.
+     * @param resy given resolution in y.
+     */
+    public void execute(int resx, int resy) {
+        _mu.io.say.action("Rendering Scene variants", true);
+        _mu.io.say.object(_scene, true);
+        if (_displayer == null) {
+            _mu.io.say.msg("No Displayer with a Scalar Display Quantity found in Scene.");
+            return;
+        }
+        _mu.io.say.object(_displayer, true);
+        _mu.io.say.value("Number of Variants", _variants.size(), true);
+        ScalarDisplayQuantity sdq = _get.scenes.scalarDisplayQuantity(_displayer, false);
+        Legend leg = _get.scenes.legend(_displayer, false);
+        FieldFunction ff0 = sdq.getFieldFunction();
+        Units u0 = sdq.getUnits();
+        LookupTable lt0 = (leg == null) ? null : leg.getLookupTable();
+        Simulation sim = _mu.getSimulation();
+        VisView vv0 = sim.getViewManager().createView();
+        vv0.copyProperties(_scene.getCurrentView());
+        vv0.setPresentationName(StaticDeclarations.TMP_CAM_NAME + "_SceneBatchRenderer");
+        for (Variant v : _variants) {
+            //-- Unset settings of a variant come from the original Displayer, not the previous one.
+            sdq.setFieldFunction(ff0);
+            sdq.setUnits(u0);
+            if (leg != null) {
+                leg.setLookupTable(lt0);
+            }
+            _mu.set.scene.cameraView(_scene, vv0, false);
+            _apply(v, sdq, leg);
+            String name = _getName(v);
+            _mu.io.say.msg(true, "  - Picture: \"%s\"...", name);
+            _mu.io.write.picture(_scene, name, resx, resy, false);
+        }
+        _mu.set.scene.cameraView(_scene, vv0, false);
+        sim.getViewManager().removeObjects(vv0);
+        _mu.io.say.ok(true);
+    }
+
+    private void _apply(Variant v, ScalarDisplayQuantity sdq, Legend leg) {
+        boolean isVector = _mu.check.is.vector(v.ff) || _mu.check.is.position(v.ff);
+        sdq.setFieldFunction(isVector ? v.ff.getMagnitudeFunction() : v.ff);
+        if (v.u != null) {
+            sdq.setUnits(v.u);
+        }
+        boolean isAuto = Double.isNaN(v.min) || Double.isNaN(v.max);
+        sdq.setAutoRange(isAuto);
+        if (!isAuto) {
+            sdq.setRange(new double[]{ v.min, v.max });
+        }
+        if (v.colormap != null && leg != null) {
+            leg.setLookupTable(v.colormap);
+        }
+        _mu.set.scene.cameraView(_scene, v.vv, false);
+    }
+
+    private String _getName(Variant v) {
+        if (v.name != null) {
+            return v.name;
+        }
+        String view = (v.vv == null) ? "" : "_" + v.vv.getPresentationName();
+        return _get.strings.friendlyFilename(String.format("%s_%s%s",
+                _scene.getPresentationName(), v.ff.getPresentationName(), view));
+    }
+
+    /**
+     * A combination of scalar quantity, range, colormap and camera view to be rendered.
+     */
+    public static class Variant {
+
+        private LookupTable colormap = null;
+        private final FieldFunction ff;
+        private double max = Double.NaN;
+        private double min = Double.NaN;
+        private String name = null;
+        private final Units u;
+        private final VisView vv;
+
+        /**
+         * Main constructor for this class. Range is automatic and colormap is the one of the
+         * original Displayer.
+         *
+         * @param ff given Field Function.
+         * @param u  given Units. Null to keep the Units of the original Displayer or, for a
+         *           Field Function with other dimensions, the Field Function defaults.
+         * @param vv given Camera View. Null to keep the current view.
+         */
+        public Variant(FieldFunction ff, Units u, VisView vv) {
+            this.ff = ff;
+            this.u = u;
+            this.vv = vv;
+        }
+
+        /**
+         * Sets a colormap for this variant.
+         *
+         * @param lt given Lookup Table. E.g.: from
+         *           {@link macroutils.getter.GetObjects#colormap}.
+         * @return This Variant.
+         */
+        public Variant colormap(LookupTable lt) {
+            colormap = lt;
+            return this;
+        }
+
+        /**
+         * Sets a custom picture name for this variant. Default is made of the Scene, Field
+         * Function and Camera View names.
+         *
+         * @param name given picture name.
+         * @return This Variant.
+         */
+        public Variant name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Sets a fixed range for this variant, in the variant Units.
+         *
+         * @param min given minimum value.
+         * @param max given maximum value.
+         * @return This Variant.
+         */
+        public Variant range(double min, double max) {
+            this.min = min;
+            this.max = max;
+            return this;
+        }
+
+    }
+
+}
@@ -0,0 +1,277 @@
+package macroutils.templates.simtools;
+
+import java.util.ArrayList;
+import java.util.List;
+import macroutils.MacroUtils;
+import macroutils.UserDeclarations;
+import macroutils.getter.MainGetter;
+import star.base.report.Report;
+import star.common.Simulation;
+
+/**
+ * This class will run a transient Simulation until the running means of given Reports are
+ * statistically converged and then stop it.
+ *
+ * In addition, it will perform the following actions:
+ * <ul>
+ * <li>Track streaming mean and variance for each Report, after an initial transient is discarded;
+ * <li>Estimate the uncertainty of the running means using the Batch Means method, with a bounded
+ * number of batches (adjacent batches are merged when full);
+ * <li>Update the Maximum Physical Time stopping criterion to the current time once every Report
+ * has a confidence interval half width below the target, so the run ends right there.
+ * </ul>
+ *
+ * <b>Application</b>: DES/LES runs where the physical time needed for converged averages is not
+ * known in advance.
+ *
+ * @since October of 2026
+ * @author Fabio Kasper
+ */
+public class StationarityDetector {
+
+    private final MainGetter _get;
+    private int _maxBatches = 64;
+    private int _minBatchSize = 4;
+    private int _minBatches = 10;
+    private final MacroUtils _mu;
+    private final List<Report> _reports;
+    private final Simulation _sim;
+    private double _startTime = 0.0;
+    private final List<Statistics> _stats = new ArrayList<>();
+    private final double _tolerance;
+    private final UserDeclarations _ud;
+
+    /**
+     * Main constructor for this class.
+     *
+     * @param m         given MacroUtils object.
+     * @param reports   given Reports to be tracked.
+     * @param tolerance given target for the 95% confidence interval half width of the running
+     *                  means, relative to their magnitude. E.g.: 0.01 for 1%.
+     */
+    public StationarityDetector(MacroUtils m, List<Report> reports, double tolerance) {
+        _mu = m;
+        _sim = m.getSimulation();
+        _ud = _mu.userDeclarations;
+        _get = _mu.get;
+        _reports = new ArrayList<>(reports);
+        _tolerance = tolerance;
+        _reports.forEach(r -> _stats.add(new Statistics()));
+    }
+
+    /**
+     * Runs the Simulation, sampling the Reports every timestep after the start time, until the
+     * averages are trustworthy or any enabled stopping criteria is satisfied, e.g., Maximum
+     * Physical Time. See {@link #setStartTime} and
+     * {@link macroutils.checker.CheckIs#stoppingCriteriaSatisfied}.
+     *
+     * @return True if the averages converged before the run ended.
+     */
+    public boolean execute() {
+        _mu.io.say.action("Running until statistics are stationary", true);
+        _mu.io.say.objects(_reports, "Reports", true);
+        _mu.io.say.percentage("Target Relative Uncertainty", 100.0 * _tolerance, true);
+        _mu.io.say.value("Sampling Start Time", _startTime, _ud.unit_s, true);
+        if (!_mu.check.is.unsteady()) {
+            _mu.io.say.msg("Simulation is not Unsteady.");
+            return false;
+        }
+        boolean converged = false;
+        while (!converged && !_mu.check.is.stoppingCriteriaSatisfied()) {
+            int iter0 = _get.solver.iteration();
+            _sim.getSimulationIterator().step(1);
+            if (_get.solver.iteration() == iter0) {
+                _mu.io.say.msg("Solver did not advance. Statistics are not converged.");
+                break;
+            }
+            converged = sample();
+        }
+        if (converged) {
+            _mu.io.say.msg(true, "Statistics converged at %g s.", _get.solver.physicalTime());
+            _mu.set.solver.maxPhysicalTime(_get.solver.physicalTime(), _ud.unit_s, true);
+        }
+        summary();
+        _mu.io.say.ok(true);
+        return converged;
+    }
+
+    /**
+     * Gets the 95% confidence interval half width of the running mean of a Report.
+     *
+     * @param r given Report.
+     * @return The half width. Infinity if there are not enough batches yet or they are still too
+     *         small. See {@link #setBatches}.
+     */
+    public double halfWidth(Report r) {
+        return _statistics(r).halfWidth();
+    }
+
+    /**
+     * Are the running means of all Reports within the target uncertainty?
+     *
+     * @return True or False.
+     */
+    public boolean isStationary() {
+        for (Statistics s : _stats) {
+            if (s.halfWidth() > _tolerance * Math.abs(s._mean)) {
+                return false;
+            }
+        }
+        return !_stats.isEmpty();
+    }
+
+    /**
+     * Gets the running mean of a Report since the start time.
+     *
+     * @param r given Report.
+     * @return The mean.
+     */
+    public double mean(Report r) {
+        return _statistics(r)._mean;
+    }
+
+    /**
+     * Takes one sample from all Reports at the current solver state. Samples before the start
+     * time are discarded. This method can be called from a custom solver loop instead of
+     * {@link #execute}.
+     *
+     * @return True if the averages are already trustworthy. See {@link #isStationary}.
+     */
+    public boolean sample() {
+        if (_get.solver.physicalTime() < _startTime) {
+            return false;
+        }
+        for (int i = 0; i < _reports.size(); i++) {
+            _stats.get(i).add(_get.reports.value(_reports.get(i)));
+        }
+        return isStationary();
+    }
+
+    /**
+     * Sets the number of batches used for the Batch Means estimate. Default is 64 maximum and 10
+     * minimum, i.e., convergence is never signaled with fewer batches than the minimum. Samples
+     * taken so far are discarded.
+     *
+     * Batches start with a single sample and double in size every time the maximum is reached.
+     * Convergence is not signaled either until batches have at least 4 samples, since batch means
+     * of consecutive, autocorrelated timesteps are not independent. See
+     * {@link #setBatches(int, int, int)}.
+     *
+     * @param min given minimum number of batches.
+     * @param max given maximum number of batches kept in memory. At least twice the minimum.
+     */
+    public void setBatches(int min, int max) {
+        setBatches(min, max, _minBatchSize);
+    }
+
+    /**
+     * Sets the number of batches used for the Batch Means estimate and the minimum batch size.
+     * Samples taken so far are discarded. See {@link #setBatches(int, int)}.
+     *
+     * @param min     given minimum number of batches.
+     * @param max     given maximum number of batches kept in memory. At least twice the minimum.
+     * @param minSize given minimum number of samples per batch. Use a value larger than the
+     *                correlation length of the Reports, in timesteps. At least 2.
+     */
+    public void setBatches(int min, int max, int minSize) {
+        _minBatchSize = Math.max(2, minSize);
+        _minBatches = Math.max(2, min);
+        _maxBatches = Math.max(2 * _minBatches, max + max % 2);
+        _stats.clear();
+        _reports.forEach(r -> _stats.add(new Statistics()));
+    }
+
+    /**
+     * Sets the physical time where sampling starts, i.e., the initial transient is discarded.
+     * Default is 0.
+     *
+     * @param time given time in {@link UserDeclarations#defUnitTime}.
+     */
+    public void setStartTime(double time) {
+        _startTime = time * _ud.defUnitTime.getConversion();
+    }
+
+    /**
+     * Prints the current statistics of every Report.
+     */
+    public void summary() {
+        for (int i = 0; i < _reports.size(); i++) {
+            Statistics s = _stats.get(i);
+            _mu.io.say.msg(true, "%s: mean = %g +/- %g; std dev = %g; samples = %d; batches = %d.",
+                    _reports.get(i).getPresentationName(), s._mean, s.halfWidth(),
+                    Math.sqrt(s.variance()), s._count, s._batches);
+        }
+    }
+
+    private Statistics _statistics(Report r) {
+        return _stats.get(_reports.indexOf(r));
+    }
+
+    /**
+     * Two-sided 95% Student's t critical value, using the Cornish-Fisher expansion.
+     */
+    private static double _tCritical(int dof) {
+        double z = 1.959964;
+        double z3 = z * z * z, z5 = z3 * z * z;
+        return z + (z3 + z) / (4.0 * dof) + (5.0 * z5 + 16.0 * z3 + 3.0 * z) / (96.0 * dof * dof);
+    }
+
+    /**
+     * Streaming statistics of a single signal, using Welford's algorithm for the mean and
+     * variance and a bounded set of batch means for the uncertainty of the mean.
+     */
+    private class Statistics {
+
+        private int _batchCount = 0;
+        private final double[] _batchMeans = new double[_maxBatches];
+        private int _batchSize = 1;
+        private double _batchSum = 0.0;
+        private int _batches = 0;
+        private long _count = 0;
+        private double _m2 = 0.0;
+        private double _mean = 0.0;
+
+        private void add(double value) {
+            _count++;
+            double delta = value - _mean;
+            _mean += delta / _count;
+            _m2 += delta * (value - _mean);
+            _batchSum += value;
+            if (++_batchCount < _batchSize) {
+                return;
+            }
+            _batchMeans[_batches++] = _batchSum / _batchSize;
+            _batchSum = 0.0;
+            _batchCount = 0;
+            if (_batches == _batchMeans.length) {
+                for (int i = 0; i < _batches / 2; i++) {
+                    _batchMeans[i] = 0.5 * (_batchMeans[2 * i] + _batchMeans[2 * i + 1]);
+                }
+                _batches /= 2;
+                _batchSize *= 2;
+            }
+        }
+
+        private double halfWidth() {
+            if (_batches < _minBatches || _batchSize < _minBatchSize) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double avg = 0.0, var = 0.0;
+            for (int i = 0; i < _batches; i++) {
+                avg += _batchMeans[i];
+            }
+            avg /= _batches;
+            for (int i = 0; i < _batches; i++) {
+                var += Math.pow(_batchMeans[i] - avg, 2);
+            }
+            var /= _batches - 1;
+            return _tCritical(_batches - 1) * Math.sqrt(var / _batches);
+        }
+
+        private double variance() {
+            return _count > 1 ? _m2 / (_count - 1) : 0.0;
+        }
+
+    }
+
+}
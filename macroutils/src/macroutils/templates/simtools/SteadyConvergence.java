@@ -0,0 +1,311 @@
+package macroutils.templates.simtools;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import macroutils.MacroUtils;
+import macroutils.getter.MainGetter;
+import star.base.report.Report;
+import star.common.Simulation;
+import star.energy.PressureDropReport;
+import star.flow.ForceCoefficientReport;
+import star.flow.ForceReport;
+import star.flow.MassFlowReport;
+
+/**
+ * This class will run a steady state Simulation until the key Reports are close enough to their
+ * converged values and then stop it, instead of running up to the maximum number of iterations.
+ *
+ * In addition, it will perform the following actions:
+ * <ul>
+ * <li>Sample the Reports every few iterations and keep a trailing window of their history;
+ * <li>Fit an exponential decay to the changes between samples, i.e., a geometric series as in
+ * Aitken's extrapolation, and estimate how far each Report still is from its asymptotic value;
+ * <li>Log the estimated remaining error of every Report and stop once all of them are below the
+ * tolerance.
+ * </ul>
+ *
+ * A Report that is not decaying, e.g., still growing or oscillating with a constant amplitude, has
+ * an infinite remaining error and keeps the run going until any enabled stopping criteria is
+ * satisfied, e.g., Maximum Steps. See {@link macroutils.checker.CheckIs#stoppingCriteriaSatisfied}.
+ *
+ * <b>Application</b>: steady RANS runs, without hand tuning asymptotic stopping criteria for every
+ * Report.
+ *
+ * @since October of 2026
+ * @author Fabio Kasper
+ */
+public class SteadyConvergence {
+
+    private final MainGetter _get;
+    private final List<History> _histories = new ArrayList<>();
+    private int _interval = 10;
+    private final MacroUtils _mu;
+    private final List<Report> _reports;
+    private final Simulation _sim;
+    private final double _tolerance;
+    private int _window = 8;
+
+    /**
+     * Main constructor for this class. The key Reports are picked automatically: Forces, Force
+     * Coefficients, Mass Flows and Pressure Drops.
+     *
+     * @param m         given MacroUtils object.
+     * @param tolerance given target for the remaining error, relative to the Report magnitude.
+     *                  E.g.: 0.001 for 0.1%.
+     */
+    public SteadyConvergence(MacroUtils m, double tolerance) {
+        this(m, _keyReports(m.get.reports.all(false)), tolerance);
+    }
+
+    /**
+     * Constructor for a given set of Reports.
+     *
+     * @param m         given MacroUtils object.
+     * @param reports   given Reports to be tracked.
+     * @param tolerance given target for the remaining error, relative to the Report magnitude.
+     *                  E.g.: 0.001 for 0.1%.
+     */
+    public SteadyConvergence(MacroUtils m, List<Report> reports, double tolerance) {
+        _mu = m;
+        _sim = m.getSimulation();
+        _get = _mu.get;
+        _reports = new ArrayList<>(reports);
+        _tolerance = tolerance;
+        _reports.forEach(r -> _histories.add(new History()));
+    }
+
+    /**
+     * Runs the Simulation, sampling the Reports at every interval, until they are converged or the
+     * current stopping criteria are satisfied. See {@link #setInterval}.
+     *
+     * @return True if the Reports converged before the run ended.
+     */
+    public boolean execute() {
+        _mu.io.say.action("Running until Reports converge", true);
+        _mu.io.say.objects(_reports, "Reports", true);
+        _mu.io.say.percentage("Target Remaining Error", 100.0 * _tolerance, true);
+        if (_mu.check.is.unsteady()) {
+            _mu.io.say.msg("Simulation is not Steady.");
+            return false;
+        }
+        if (_reports.isEmpty()) {
+            _mu.io.say.msg("No Reports to track.");
+            return false;
+        }
+        boolean converged = false;
+        while (!converged && !_mu.check.is.stoppingCriteriaSatisfied()) {
+            int iter0 = _get.solver.iteration();
+            int n = Math.max(1, Math.min(_interval, _get.solver.stepsLeft()));
+            _sim.getSimulationIterator().step(n);
+            if (_get.solver.iteration() == iter0) {
+                _mu.io.say.msg("Solver did not advance. Reports are not converged.");
+                break;
+            }
+            converged = sample();
+            summary();
+        }
+        if (converged) {
+            _mu.io.say.msg(true, "Reports converged at iteration %d.", _get.solver.iteration());
+        }
+        _mu.io.say.ok(true);
+        return converged;
+    }
+
+    /**
+     * Gets the extrapolated, i.e., asymptotic, value of a Report.
+     *
+     * @param r given Report.
+     * @return The value. The last sample if the Report is not decaying.
+     */
+    public double extrapolated(Report r) {
+        return _history(r).extrapolated();
+    }
+
+    /**
+     * Are all Reports within the tolerance?
+     *
+     * @return True or False.
+     */
+    public boolean isConverged() {
+        for (History h : _histories) {
+            if (h.relativeError() > _tolerance) {
+                return false;
+            }
+        }
+        return !_histories.isEmpty();
+    }
+
+    /**
+     * Gets the estimated remaining error of a Report, relative to its magnitude.
+     *
+     * @param r given Report.
+     * @return The relative error. Infinity if there are not enough samples yet or the Report is
+     *         not decaying.
+     */
+    public double remainingError(Report r) {
+        return _history(r).relativeError();
+    }
+
+    /**
+     * Takes one sample from all Reports at the current solver state. This method can be called
+     * from a custom solver loop instead of {@link #execute}.
+     *
+     * @return True if all Reports are converged. See {@link #isConverged}.
+     */
+    public boolean sample() {
+        for (int i = 0; i < _reports.size(); i++) {
+            _histories.get(i).add(_get.reports.value(_reports.get(i)));
+        }
+        return isConverged();
+    }
+
+    /**
+     * Sets the number of iterations between samples. Default is 10.
+     *
+     * @param n given number of iterations.
+     */
+    public void setInterval(int n) {
+        _interval = Math.max(1, n);
+    }
+
+    /**
+     * Sets the number of trailing samples used in the fit. Default is 8, i.e., 80 iterations with
+     * the default interval. Samples taken so far are kept.
+     *
+     * @param n given number of samples. At least 3.
+     */
+    public void setWindow(int n) {
+        _window = Math.max(3, n);
+    }
+
+    /**
+     * Prints the current estimates of every Report.
+     */
+    public void summary() {
+        _mu.io.say.msg(true, "Iteration %d:", _get.solver.iteration());
+        for (int i = 0; i < _reports.size(); i++) {
+            History h = _histories.get(i);
+            _mu.io.say.msg(true, "  - %s: value = %g; extrapolated = %g; remaining error = %s.",
+                    _reports.get(i).getPresentationName(), h.last(), h.extrapolated(),
+                    _percentage(h.relativeError()));
+        }
+    }
+
+    private History _history(Report r) {
+        return _histories.get(_reports.indexOf(r));
+    }
+
+    private static List<Report> _keyReports(List<Report> reports) {
+        ArrayList<Report> key = new ArrayList<>();
+        for (Report r : reports) {
+            if (r instanceof ForceReport || r instanceof ForceCoefficientReport
+                    || r instanceof MassFlowReport || r instanceof PressureDropReport) {
+                key.add(r);
+            }
+        }
+        return key;
+    }
+
+    private String _percentage(double value) {
+        return Double.isInfinite(value) ? "n/a" : String.format("%.3g%%", 100.0 * value);
+    }
+
+    /**
+     * Trailing history of a single Report. Changes between consecutive samples are assumed to
+     * decay geometrically, d(k+1) = q * d(k), and the ratio q is fitted by least squares on
+     * log|d|. The remaining error is then the tail of the series, d * q / (1 - q).
+     */
+    private class History {
+
+        private final ArrayDeque<Double> _values = new ArrayDeque<>();
+
+        private void add(double value) {
+            _values.addLast(value);
+            while (_values.size() > _window) {
+                _values.removeFirst();
+            }
+        }
+
+        private double extrapolated() {
+            double tail = _tail();
+            return Double.isInfinite(tail) ? last() : last() + tail;
+        }
+
+        private double last() {
+            return _values.isEmpty() ? Double.NaN : _values.getLast();
+        }
+
+        private double relativeError() {
+            double tail = Math.abs(_tail());
+            if (Double.isNaN(tail) || Double.isInfinite(tail)) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double ref = Math.max(Math.abs(extrapolated()), Math.abs(last()));
+            if (ref == 0.0) {
+                return (tail == 0.0) ? 0.0 : Double.POSITIVE_INFINITY;
+            }
+            return tail / ref;
+        }
+
+        /**
+         * Signed sum of the remaining changes.
+         */
+        private double _tail() {
+            if (_values.size() < 3) {
+                return Double.POSITIVE_INFINITY;
+            }
+            int n = _values.size() - 1;
+            double[] d = new double[n];
+            Iterator<Double> it = _values.iterator();
+            double prev = it.next();
+            double small = Math.abs(prev);
+            for (int k = 0; k < n; k++) {
+                double v = it.next();
+                d[k] = v - prev;
+                prev = v;
+                small = Math.max(small, Math.abs(v));
+            }
+            //-- Changes at round-off level are ignored. Converged only if all of them are.
+            small *= 1e-12;
+            int last = -1;
+            for (int k = 0; k < n; k++) {
+                last = (Math.abs(d[k]) > small) ? k : last;
+            }
+            if (last < 0) {
+                return 0.0;
+            }
+            double sx = 0.0, sy = 0.0, sxx = 0.0, sxy = 0.0;
+            int m = 0, flips = 0;
+            for (int k = 0; k < n; k++) {
+                if (Math.abs(d[k]) <= small) {
+                    continue;
+                }
+                double y = Math.log(Math.abs(d[k]));
+                sx += k;
+                sy += y;
+                sxx += k * k;
+                sxy += k * y;
+                m++;
+                if (k > 0 && d[k] * d[k - 1] < 0.0) {
+                    flips++;
+                }
+            }
+            if (m < 2 || m * sxx - sx * sx == 0.0) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double q = Math.exp((m * sxy - sx * sy) / (m * sxx - sx * sx));
+            if (q >= 1.0) {
+                return Double.POSITIVE_INFINITY;
+            }
+            //-- Mostly alternating changes sum up as a series with a negative ratio.
+            if (2 * flips > n - 1) {
+                q = -q;
+            }
+            return d[last] * Math.pow(q, n - 1 - last) * q / (1.0 - q);
+        }
+
+    }
+
+}
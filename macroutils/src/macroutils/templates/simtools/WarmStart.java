@@ -0,0 +1,207 @@
+package macroutils.templates.simtools;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.regex.Pattern;
+import macroutils.MacroUtils;
+import macroutils.UserDeclarations;
+import macroutils.getter.MainGetter;
+import star.common.Continuum;
+import star.common.FieldFunction;
+import star.common.FileTable;
+import star.common.PhysicsContinuum;
+import star.common.Profile;
+import star.common.ScalarProfile;
+import star.common.Simulation;
+import star.common.VectorProfile;
+import star.common.XyzInternalTable;
+import star.common.XyzTabularScalarProfileMethod;
+import star.common.XyzTabularVectorProfileMethod;
+
+/**
+ * This class will carry a converged solution from one mesh to another, e.g., from a coarse to a
+ * fine mesh, and use it as the initial condition of the next run instead of constant values.
+ *
+ * It works in two steps:
+ * <ul>
+ * <li>{@link #save} writes the cell values of the fields that have an Initial Condition, such as
+ * Pressure, Velocity, Temperature and turbulence quantities, into a CSV file next to the
+ * Simulation file;
+ * <li>{@link #apply}, after re-meshing or in another Simulation, points those Initial Conditions
+ * to the CSV data through XYZ tabular profiles, which STAR-CCM+ interpolates onto the new cells,
+ * and initializes the solution.
+ * </ul>
+ *
+ * Constant Initial Conditions can be restored with
+ * {@link macroutils.setter.SetPhysics#initialConditions}.
+ *
+ * <b>Application</b>: multi-stage runs, e.g., RANS to DES or grid convergence studies, where the
+ * expensive fine mesh would otherwise start from scratch.
+ *
+ * @since October of 2026
+ * @author Fabio Kasper
+ */
+public class WarmStart {
+
+    private static final Pattern _UNITS = Pattern.compile("\\s*\\(.*\\)$");
+
+    private final File _file;
+    private final MainGetter _get;
+    private final MacroUtils _mu;
+
+    /**
+     * Main constructor for this class. The solution file is named after the current
+     * {@link UserDeclarations#simTitle}.
+     *
+     * @param m given MacroUtils object.
+     */
+    public WarmStart(MacroUtils m) {
+        this(m, new File(m.userDeclarations.simPath, m.get.strings
+                .friendlyFilename(m.userDeclarations.simTitle) + "_WarmStart.csv"));
+    }
+
+    /**
+     * Constructor for sharing a solution between Simulations, e.g., in a grid convergence study.
+     *
+     * @param m given MacroUtils object.
+     * @param f given CSV file.
+     */
+    public WarmStart(MacroUtils m, File f) {
+        _mu = m;
+        _get = _mu.get;
+        _file = f;
+    }
+
+    /**
+     * Sets the Initial Conditions of a Physics Continua from the saved solution, where a column
+     * with the same name, apart from its units, is available, and initializes the solution.
+     *
+     * @param pc given Physics Continua.
+     * @return The number of Initial Conditions mapped.
+     */
+    public int apply(PhysicsContinuum pc) {
+        _mu.io.say.action("Applying Warm Start", true);
+        _mu.io.say.object(pc, true);
+        _mu.io.say.value("File", _file.toString(), true, true);
+        if (!_file.isFile()) {
+            _mu.io.say.msg("File not found. Keeping current Initial Conditions.");
+            return 0;
+        }
+        Simulation sim = _mu.getSimulation();
+        FileTable ft = (FileTable) sim.getTableManager().createFromFile(_file.toString());
+        ft.setPresentationName("Warm Start");
+        LinkedHashMap<String, String> cols = new LinkedHashMap<>();
+        ft.getColumnDescriptors().forEach(cd -> cols.put(_name(cd.getColumnName()),
+                cd.getColumnName()));
+        int n = 0;
+        for (Object o : pc.getInitialConditions().getObjects()) {
+            if (o instanceof ScalarProfile sp && cols.containsKey(sp.getPresentationName())) {
+                sp.setMethod(XyzTabularScalarProfileMethod.class);
+                XyzTabularScalarProfileMethod m = sp.getMethod(XyzTabularScalarProfileMethod.class);
+                m.setTable(ft);
+                m.setData(cols.get(sp.getPresentationName()));
+            } else if (o instanceof VectorProfile vp && cols.containsKey(_component(vp, 0))) {
+                vp.setMethod(XyzTabularVectorProfileMethod.class);
+                XyzTabularVectorProfileMethod m = vp.getMethod(XyzTabularVectorProfileMethod.class);
+                m.setTable(ft);
+                m.setXData(cols.get(_component(vp, 0)));
+                m.setYData(cols.get(_component(vp, 1)));
+                m.setZData(cols.get(_component(vp, 2)));
+            } else {
+                continue;
+            }
+            _mu.io.say.msg(true, "  - Mapped: \"%s\".", ((Profile) o).getPresentationName());
+            n++;
+        }
+        _mu.io.say.value("Initial Conditions mapped", n, true);
+        if (n > 0) {
+            _mu.clear.solution();
+            sim.getSolution().initializeSolution();
+        }
+        _mu.io.say.ok(true);
+        return n;
+    }
+
+    /**
+     * Gets the solution file.
+     *
+     * @return The File.
+     */
+    public File getFile() {
+        return _file;
+    }
+
+    /**
+     * Saves the current solution, on all Regions, for every field that has an Initial Condition in
+     * the Physics Continuas. Call it on the converged solution, before re-meshing.
+     *
+     * @return True if the file was written.
+     */
+    public boolean save() {
+        _mu.io.say.action("Saving Warm Start", true);
+        Simulation sim = _mu.getSimulation();
+        LinkedHashSet<String> names = new LinkedHashSet<>();
+        for (Continuum c : sim.getContinuumManager().getObjects()) {
+            if (c instanceof PhysicsContinuum pc) {
+                pc.getInitialConditions().getObjects()
+                        .forEach(o -> names.add(((Profile) o).getPresentationName()));
+            }
+        }
+        ArrayList<FieldFunction> aff = new ArrayList<>();
+        for (String name : names) {
+            FieldFunction ff = _get.objects.fieldFunction(Pattern.quote(name), false);
+            if (ff == null) {
+                continue;
+            }
+            if (_mu.check.is.vector(ff)) {
+                for (int i = 0; i < 3; i++) {
+                    aff.add(ff.getComponentFunction(i));
+                }
+            } else {
+                aff.add(ff);
+            }
+        }
+        _mu.io.say.objects(aff, "Field Functions", true);
+        if (aff.isEmpty()) {
+            _mu.io.say.msg("Nothing to save.");
+            return false;
+        }
+        File tmp = new File(_file.getParentFile(), _file.getName() + ".tmp");
+        XyzInternalTable t = sim.getTableManager().createTable(XyzInternalTable.class);
+        t.setPresentationName("_tmpWarmStart");
+        t.setFieldFunctions(aff);
+        t.getParts().setObjects(_get.regions.all(false));
+        try {
+            t.extract();
+            t.export(tmp.toString(), ",");
+            Files.move(tmp.toPath(), _file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException ex) {
+            _mu.io.say.msg(true, "Could not write warm start file: %s", ex.getMessage());
+            tmp.delete();
+            return false;
+        } finally {
+            sim.getTableManager().remove(t);
+        }
+        _mu.io.say.value("File", _file.toString(), true, true);
+        _mu.io.say.ok(true);
+        return true;
+    }
+
+    private String _component(VectorProfile vp, int i) {
+        return String.format("%s[%s]", vp.getPresentationName(), "ijk".charAt(i));
+    }
+
+    /**
+     * Column name without the units, so it matches the Initial Condition names. The exported
+     * header, e.g., "Pressure (Pa)", is kept as is since the File Table reads the units from it.
+     */
+    private String _name(String column) {
+        return _UNITS.matcher(column.replace("\"", "").trim()).replaceAll("");
+    }
+
+}
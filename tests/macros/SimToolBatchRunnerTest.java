@@ -0,0 +1,40 @@
+import java.io.File;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import macroutils.MacroUtils;
+import macroutils.templates.simtools.BatchRunner;
+
+/**
+ * This is an automated test for the BatchRunner simulation tool. It is a plain Java program, run
+ * without STAR-CCM+, with a stand-in worker command.
+ *
+ * Arguments: Simulation files folder, output folder and the stand-in command.
+ *
+ * @since October of 2026
+ * @author Fabio Kasper
+ */
+public class SimToolBatchRunnerTest {
+
+    public static void main(String[] args) {
+
+        final BatchRunner br = new BatchRunner(NoWorkflow.class, new File(args[1]));
+
+        br.setCommand(Arrays.asList(Arrays.copyOfRange(args, 2, args.length)));
+        br.setRetries(1);
+        br.setTimeout(0.05);
+        br.setWorkers(2);
+
+        br.execute(new File(args[0]), null);
+
+    }
+
+    public static class NoWorkflow implements BatchRunner.Workflow {
+
+        @Override
+        public LinkedHashMap<String, String> run(MacroUtils mu) {
+            return new LinkedHashMap<>();
+        }
+
+    }
+
+}
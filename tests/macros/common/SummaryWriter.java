@@ -156,9 +156,8 @@ public final class SummaryWriter {
      * Collect information concerning Reports.
      */
     public void collectReports() {
-        collect("Reports", () -> INFORMATION.addAll(sim.getReportManager().getObjects().stream()
-                .map(r -> getPair(mu.get.strings.information(r), r.getReportMonitorValue()))
-                .collect(Collectors.toList())));
+        collect("Reports", () -> mu.get.reports.values(mu.get.reports.all(false), false)
+                .forEach((r, v) -> INFORMATION.add(getPair(mu.get.strings.information(r), v))));
     }
 
     /**
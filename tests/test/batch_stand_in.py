@@ -0,0 +1,50 @@
+# -*- coding: utf-8 -*-
+"""
+Stand-in for a STAR-CCM+ batch worker, used by the BatchRunner test.
+
+Usage: batch_stand_in.py <sim_file> <output_csv>
+
+Behavior depends on the Simulation file name:
+    - ok_*: writes the output CSV and exits with zero;
+    - flaky_*: fails on the first attempt and succeeds on the next one;
+    - bad_*: always fails;
+    - hang_*: starts a child process and both sleep, until killed.
+
+@author: Fabio Kasper
+"""
+import os
+import subprocess
+import sys
+import time
+
+
+def _write(sim_file, out_file):
+    name = os.path.splitext(os.path.basename(sim_file))[0]
+    with open(out_file, 'w') as f:
+        f.write('Name,Value\n')
+        f.write('"%s, done",%s\n' % (name, name.split('_')[-1]))
+
+
+def main(sim_file, out_file):
+    name = os.path.basename(sim_file)
+    if name.startswith('ok_'):
+        _write(sim_file, out_file)
+        return 0
+    if name.startswith('flaky_'):
+        marker = out_file + '.flaky'
+        if not os.path.exists(marker):
+            open(marker, 'w').close()
+            return 1
+        _write(sim_file, out_file)
+        return 0
+    if name.startswith('hang_'):
+        child = subprocess.Popen([sys.executable, '-c',
+                                  'import time; time.sleep(120)'])
+        with open(out_file + '.pids', 'a') as f:
+            f.write('%d\n' % child.pid)
+        time.sleep(120)
+    return 1
+
+
+if __name__ == "__main__":
+    sys.exit(main(sys.argv[1], sys.argv[2]))
@@ -1,9 +1,14 @@
 # -*- coding: utf-8 -*-
+import csv
 import os
 import re
+import subprocess
+import sys
+import time
 import test_utils
 
 
+BATCH_RUNNER = 'SimToolBatchRunner'
 CONVERGENCE_CHECKER = 'SimToolImplicitUnsteadyConvergenceChecker'
 MESH_METRICS = 'SimToolMeshMetrics'
 
@@ -23,6 +28,18 @@ def _contents_sim_tool(key, mesh_metric):
     return test_utils._contents(ref_file)
 
 
+def _is_alive(pid):
+    """Zombies, i.e., killed but not reaped yet, are not alive"""
+    try:
+        os.kill(pid, 0)
+    except ProcessLookupError:
+        return False
+    status = '/proc/%d/status' % pid
+    if os.path.exists(status):
+        return not re.findall(r'State:\s+Z', test_utils._contents(status))
+    return True
+
+
 def _load_demo(demo_id, macro_name):
 
     os.chdir(test_utils._test_home())
@@ -70,3 +87,49 @@ def test_mesh_metrics():
     assert expected == len(re.findall('Plot -> ', created))
     assert plots_created == len(re.findall('Function:', created))
     assert plots_created == len(re.findall('Bins:', created))
+
+
+def test_batch_runner(tmp_path):
+
+    os.chdir(test_utils._test_home())
+
+    jar_file = os.path.abspath(test_utils._glob('macroutils*.jar')[0])
+    stand_in = os.path.join(os.path.dirname(__file__), 'batch_stand_in.py')
+    sim_dir, out_dir = tmp_path / 'sims', tmp_path / 'out'
+    sim_dir.mkdir()
+
+    expected = {'bad_4.sim': 'FAILED', 'flaky_3.sim': 'OK',
+                'hang_5.sim': 'FAILED', 'ok_1.sim': 'OK', 'ok_2.sim': 'OK'}
+    for sim_file in expected:
+        (sim_dir / sim_file).touch()
+
+    subprocess.run(['java', '-cp', jar_file, '%sTest.java' % BATCH_RUNNER,
+                    str(sim_dir), str(out_dir), sys.executable, stand_in,
+                    '{sim}', '{out}'], check=True)
+
+    with open(out_dir / 'batch_results.csv', 'r') as f:
+        rows = list(csv.DictReader(f))
+
+    # Merging: one row per file, sorted, with the quoted values preserved
+    assert [row['Simulation'] for row in rows] == sorted(expected)
+    assert {row['Simulation']: row['Status'] for row in rows} == expected
+    for row in rows:
+        ok = row['Status'] == 'OK'
+        name = row['Simulation'].replace('.sim', '')
+        assert row['Name'] == ('%s, done' % name if ok else '')
+        assert row['Value'] == (name.split('_')[-1] if ok else '')
+
+    # Retries: one restart per failed attempt and no more
+    for name in ['bad_4', 'flaky_3', 'hang_5']:
+        assert os.path.exists(out_dir / ('%s_1.log' % name))
+        assert not os.path.exists(out_dir / ('%s_2.log' % name))
+    assert not os.path.exists(out_dir / 'ok_1_1.log')
+
+    # Timeout: the processes started by the worker are killed as well
+    with open(out_dir / 'hang_5.csv.pids', 'r') as f:
+        pids = [int(pid) for pid in f.read().split()]
+    assert len(pids) == 2
+    deadline = time.time() + 10
+    while any(_is_alive(pid) for pid in pids) and time.time() < deadline:
+        time.sleep(0.2)
+    assert not any(_is_alive(pid) for pid in pids)